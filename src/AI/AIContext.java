@@ -0,0 +1,213 @@
+package src.AI;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import src.Arena.Arena;
+import src.Arena.ArenaView;
+import src.Enemy.Enemy;
+import src.Enemy.Position;
+
+/**
+ * What the enemy AI sees during one decision phase: a view of the board plus
+ * what the simulation keeps for the AI on the side (the player distance
+ * field and the cells of the living enemies), so the arena itself knows
+ * nothing about either.
+ *
+ * It also holds the owner's search settings (planner, deterministic search),
+ * the search time left this tick and the match's MCTS planner, so matches
+ * running side by side never share a budget or see each other's options.
+ *
+ * The distance field is lazy: it is only brought up to date on the first
+ * distance query of a decision phase, so rounds and phases where no enemy
+ * asks (Koura and Sark never do) skip the BFS the player's moves would
+ * otherwise cost.
+ *
+ * The owner calls {@link #update} before each decision phase; until the next
+ * update it is read-only (apart from the budget, which is lock-free, and the
+ * field refresh, which runs once under a lock) and as safe to share between
+ * threads as the view under it.
+ */
+public class AIContext implements ArenaView {
+    /** Search time per tick for every enemy deciding against this context together. */
+    public static final long TICK_BUDGET_NANOS = 3_000_000;
+
+    private final DistanceField playerDistances;
+    private Arena arena; // the field is kept against the live arena
+    private int sourceRow, sourceCol;
+    private volatile boolean distancesFresh;
+    private AIController.Planner planner = AIController.Planner.DEFAULT;
+    private boolean deterministicSearch;
+    private long budgetTick = -1;
+    private final AtomicLong budgetLeft = new AtomicLong();
+    private MctsPlanner mcts; // created on the first MCTS search
+    private ArenaView view;
+    private int cols;
+    private int[] enemyCells = new int[16]; // packed row * cols + col of living enemies
+    private int enemyCount;
+
+    /** @param playerDistances field to keep from the player's cell, may be null */
+    public AIContext(DistanceField playerDistances) {
+        this.playerDistances = playerDistances;
+    }
+
+    /** Decide against view from now on, with the cells of the living enemies. */
+    public void update(ArenaView view, List<? extends Enemy> enemies) {
+        this.view = view;
+        cols = view.getCols();
+        if (enemies.size() > enemyCells.length)
+            enemyCells = Arrays.copyOf(enemyCells, Math.max(enemies.size(), enemyCells.length * 2));
+        int n = 0;
+        for (Enemy e : enemies) {
+            if (e.isAlive())
+                enemyCells[n++] = e.getPosition().row * cols + e.getPosition().col;
+        }
+        enemyCount = n;
+
+        long tick = view.getTick();
+        if (tick != budgetTick) {
+            budgetTick = tick;
+            budgetLeft.set(TICK_BUDGET_NANOS);
+        }
+        distancesFresh = false;
+    }
+
+    /**
+     * Cell the player distance field measures from, on the live arena (which
+     * must not change during a decision phase). Call once per tick.
+     */
+    public void setPlayerCell(Arena arena, int row, int col) {
+        this.arena = arena;
+        sourceRow = row;
+        sourceCol = col;
+        distancesFresh = false;
+    }
+
+    /** The player distance field, brought up to date first; null if there is none. */
+    public DistanceField getPlayerDistances() {
+        if (playerDistances != null && !distancesFresh)
+            refreshDistances();
+        return playerDistances;
+    }
+
+    private synchronized void refreshDistances() {
+        if (distancesFresh)
+            return;
+        if (arena != null)
+            playerDistances.update(arena, sourceRow, sourceCol);
+        distancesFresh = true;
+    }
+
+    /* ================= SEARCH SETTINGS ================= */
+
+    public void setPlanner(AIController.Planner p) {
+        planner = p == null ? AIController.Planner.DEFAULT : p;
+    }
+
+    public AIController.Planner getPlanner() {
+        return planner;
+    }
+
+    /**
+     * Deterministic search: planners stop after a fixed node / rollout count
+     * instead of sharing the per-tick time budget, so a seeded match replays
+     * identically. Costs the frame-time guarantee on slow machines, so only
+     * headless and replay runs should turn it on.
+     */
+    public void setDeterministicSearch(boolean on) {
+        deterministicSearch = on;
+    }
+
+    public boolean isDeterministicSearch() {
+        return deterministicSearch;
+    }
+
+    // The one MCTS planner of this match; it parallelises each search itself,
+    // so enemies deciding at the same time take turns on it (lock it to plan)
+    synchronized MctsPlanner getMctsPlanner() {
+        if (mcts == null)
+            mcts = new MctsPlanner();
+        return mcts;
+    }
+
+    // Up to max nanos of this tick's search time for one decision; 0 if less
+    // than min is left (use heuristics)
+    long reserveSearchBudget(long max, long min) {
+        while (true) {
+            long left = budgetLeft.get();
+            long granted = Math.min(max, left);
+            if (granted < min)
+                return 0;
+            if (budgetLeft.compareAndSet(left, left - granted))
+                return granted;
+        }
+    }
+
+    /* ================= ARENA VIEW ================= */
+
+    @Override
+    public int getRows() {
+        return view.getRows();
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public boolean isWall(int row, int col) {
+        return view.isWall(row, col);
+    }
+
+    @Override
+    public boolean isJetwall(int row, int col) {
+        return view.isJetwall(row, col);
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return view.isEmpty(row, col);
+    }
+
+    @Override
+    public Position getPlayerPosition() {
+        return view.getPlayerPosition();
+    }
+
+    @Override
+    public int getPlayerRow() {
+        return view.getPlayerRow();
+    }
+
+    @Override
+    public int getPlayerCol() {
+        return view.getPlayerCol();
+    }
+
+    @Override
+    public int distanceToPlayer(int row, int col) {
+        DistanceField field = getPlayerDistances();
+        return field == null ? DistanceField.UNREACHABLE : field.distance(row, col);
+    }
+
+    @Override
+    public long getTick() {
+        return view.getTick();
+    }
+
+    @Override
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    @Override
+    public int getEnemyRow(int index) {
+        return enemyCells[index] / cols;
+    }
+
+    @Override
+    public int getEnemyCol(int index) {
+        return enemyCells[index] % cols;
+    }
+}
@@ -1,47 +1,72 @@
 package src.AI;
 
-import java.util.Random;
 import src.Arena.ArenaView;
 import src.Enemy.Direction;
 import src.Enemy.Enemy;
 import src.Enemy.Position;
 
+/**
+ * Built-in enemy behaviours.
+ *
+ * The hot path works on packed cells (row * cols + col) with neighbour offset
+ * tables indexed by Direction ordinal, so deciding a move allocates nothing.
+ */
 public class AIController {
-    private static final Random rand = new Random();
-
-    // ===== Main difficulty-based AI router =====
-    public static Direction decideMove(Enemy enemy, ArenaView arena) {
-        String difficulty = getDifficultyFromName(enemy.getName());
+    // Territory evaluation: whole arena when small, bounded depth otherwise
+    private static final ThreadLocal<TerritoryEvaluator> TERRITORY = ThreadLocal.withInitial(TerritoryEvaluator::new);
+    private static final int TERRITORY_FULL_ARENA_CELLS = 64 * 64;
+    private static final int TERRITORY_DEPTH = 24;
+    private static final int TERRITORY_CUTOFF_RANGE = 12; // Rinzler fights for space inside this range
+
+    /**
+     * Planner for close fights: DEFAULT keeps each tier's own (territory for
+     * Rinzler, alpha-beta lookahead for Clu); LOOKAHEAD / MCTS force one for both.
+     */
+    public enum Planner {
+        DEFAULT, LOOKAHEAD, MCTS
+    }
 
-        return switch (difficulty) {
-            case "Easy" -> easyBehavior(enemy, arena);
-            case "Medium" -> mediumBehavior(enemy, arena);
-            case "Hard" -> hardBehavior(enemy, arena);
-            case "Impossible" -> impossibleBehavior(enemy, arena);
-            default -> randomMove(enemy, arena); // Fallback
-        };
+    // Clu searches ahead when the player is within this range
+    private static final ThreadLocal<LookaheadSearch> LOOKAHEAD = ThreadLocal.withInitial(LookaheadSearch::new);
+    private static MctsPlanner standaloneMcts; // for searches outside a simulation
+    private static final int LOOKAHEAD_RANGE = 16;
+    private static final long LOOKAHEAD_MIN_BUDGET_NANOS = 200_000;
+
+    // ===== Packed cells and direction tables (indexed by Direction ordinal) =====
+    private static final int OFF_GRID = -1;
+    private static final Direction[] DIRS = Direction.values();
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+    private static final Direction[] LEFT_OF = { Direction.LEFT, Direction.RIGHT, Direction.DOWN, Direction.UP };
+    private static final Direction[] RIGHT_OF = { Direction.RIGHT, Direction.LEFT, Direction.UP, Direction.DOWN };
+    private static final Direction[] OPPOSITE = { Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT };
+    private static final Direction[] PATTERN_ORDER = { Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP };
+    private static final Direction[][] STRATEGIC_OPTIONS = new Direction[4][]; // straight on, left, right
+    static {
+        for (Direction d : DIRS)
+            STRATEGIC_OPTIONS[d.ordinal()] = new Direction[] { d, LEFT_OF[d.ordinal()], RIGHT_OF[d.ordinal()] };
     }
 
-    // ===== Get difficulty from enemy name (based on enemies.txt) =====
-    private static String getDifficultyFromName(String name) {
-        return switch (name.toLowerCase()) {
-            case "koura" -> "Easy";
-            case "sark" -> "Medium";
-            case "rinzler" -> "Hard";
-            case "clu" -> "Impossible";
-            default -> "Easy";
-        };
+    private static final int JETWALL_PENALTY = 2;
+
+    // ===== Built-in policies (one per difficulty tier) =====
+    public static final AIPolicy EASY = AIController::easyBehavior;
+    public static final AIPolicy MEDIUM = AIController::mediumBehavior;
+    public static final AIPolicy HARD = AIController::hardBehavior;
+    public static final AIPolicy IMPOSSIBLE = AIController::impossibleBehavior;
+
+    // ===== Main AI router: the enemy's own policy =====
+    public static Direction decideMove(Enemy enemy, ArenaView arena) {
+        return enemy.getPolicy().decideMove(enemy, arena);
     }
 
     // ===== Easy: Predictable Random Movement (Koura) =====
     public static Direction randomMove(Enemy enemy, ArenaView arena) {
-        Direction[] dirs = Direction.values();
+        int pos = cellOf(enemy, arena);
 
         for (int i = 0; i < 4; i++) {
-            Direction d = dirs[rand.nextInt(dirs.length)];
-            Position next = nextPos(enemy.getPosition(), d);
-
-            if (arena.isEmpty(next.row, next.col))
+            Direction d = DIRS[enemy.getRandom().nextInt(DIRS.length)];
+            if (isFree(arena, neighbour(arena, pos, d)))
                 return d;
         }
         return enemy.getDirection(); // Keep current direction if stuck
@@ -54,16 +79,10 @@ public class AIController {
 
     // ===== Medium: Simple Pattern Movement (Sark) =====
     public static Direction patternMove(Enemy enemy, ArenaView arena) {
-        Direction[] order = {
-                Direction.RIGHT,
-                Direction.DOWN,
-                Direction.LEFT,
-                Direction.UP
-        };
-
-        for (Direction d : order) {
-            Position next = nextPos(enemy.getPosition(), d);
-            if (arena.isEmpty(next.row, next.col))
+        int pos = cellOf(enemy, arena);
+
+        for (Direction d : PATTERN_ORDER) {
+            if (isFree(arena, neighbour(arena, pos, d)))
                 return d;
         }
         return enemy.getDirection();
@@ -71,11 +90,10 @@ public class AIController {
 
     private static Direction mediumBehavior(Enemy enemy, ArenaView arena) {
         // Predictable pattern movement with occasional chase
-        if (rand.nextDouble() < 0.3) {
+        if (enemy.getRandom().nextDouble() < 0.3) {
             // 30% chance to try basic chase
             Direction chaseDir = basicChase(enemy, arena);
-            Position next = nextPos(enemy.getPosition(), chaseDir);
-            if (arena.isEmpty(next.row, next.col))
+            if (isFree(arena, neighbour(arena, cellOf(enemy, arena), chaseDir)))
                 return chaseDir;
         }
         return patternMove(enemy, arena);
@@ -83,33 +101,38 @@ public class AIController {
 
     // ===== Hard: Anticipate Player Direction + Flanking (Rinzler) =====
     public static Direction chase(Enemy enemy, ArenaView arena) {
-        Position player = arena.getPlayerPosition();
-        Position pos = enemy.getPosition();
+        int pos = cellOf(enemy, arena);
 
-        if (Math.abs(player.row - pos.row) > Math.abs(player.col - pos.col)) {
-            return player.row < pos.row ? Direction.UP : Direction.DOWN;
-        } else {
-            return player.col < pos.col ? Direction.LEFT : Direction.RIGHT;
-        }
+        // Follow the shortest path around walls when the distance field covers us
+        Direction step = pathStep(arena, pos);
+        if (step != null)
+            return step;
+
+        return basicChase(enemy, arena);
     }
 
     private static Direction hardBehavior(Enemy enemy, ArenaView arena) {
-        Position player = arena.getPlayerPosition();
-        Position pos = enemy.getPosition();
-
-        // Anticipate player movement by predicting where they'll be
-        Position predictedPlayer = anticipatePlayerPosition(player, pos);
-
-        // Try to intercept predicted position
-        Direction interceptDir = getDirectionToTarget(pos, predictedPlayer);
-        Position next = nextPos(pos, interceptDir);
+        int pos = cellOf(enemy, arena);
+        int row = enemy.getPosition().row, col = enemy.getPosition().col;
+        int playerRow = arena.getPlayerRow(), playerCol = arena.getPlayerCol();
+
+        // Close to the player: take the move that leaves them the least room
+        if (Math.abs(playerRow - row) + Math.abs(playerCol - col) <= TERRITORY_CUTOFF_RANGE) {
+            Planner planner = plannerOf(arena);
+            Direction cutoff = planner == Planner.DEFAULT ? territoryMove(arena, pos, DIRS, DIRS.length)
+                    : plannedMove(planner, enemy, arena, row, col);
+            if (cutoff != null)
+                return cutoff;
+        }
 
-        if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
+        // Anticipate player movement and try to intercept the predicted position
+        Direction interceptDir = anticipateIntercept(playerRow, playerCol, row, col);
+        if (isFree(arena, neighbour(arena, pos, interceptDir))) {
             return interceptDir;
         }
 
         // If interception blocked, try flanking
-        Direction flankDir = attemptFlank(enemy, arena, player);
+        Direction flankDir = attemptFlank(arena, pos, playerRow, playerCol);
         if (flankDir != null) {
             return flankDir;
         }
@@ -122,40 +145,33 @@ public class AIController {
     // Coordination (Clu) =====
     public static Direction chaseAvoid(Enemy enemy, ArenaView arena) {
         Direction primary = chase(enemy, arena);
-
-        Direction[] options = {
-                primary,
-                turnLeft(primary),
-                turnRight(primary),
-                opposite(primary)
-        };
-
-        for (Direction d : options) {
-            Position next = nextPos(enemy.getPosition(), d);
-            if (!arena.isWall(next.row, next.col) && !arena.isJetwall(next.row, next.col))
-                return d;
-        }
-        return primary;
+        Direction found = firstFree(arena, cellOf(enemy, arena), primary);
+        return found != null ? found : primary;
     }
 
     private static Direction impossibleBehavior(Enemy enemy, ArenaView arena) {
-        Position player = arena.getPlayerPosition();
-        Position pos = enemy.getPosition();
-
-        // Advanced anticipation: predict multiple steps ahead
-        Position predictedPlayer = anticipatePlayerPositionAdvanced(player, pos);
+        int pos = cellOf(enemy, arena);
+        int row = enemy.getPosition().row, col = enemy.getPosition().col;
+        int playerRow = arena.getPlayerRow(), playerCol = arena.getPlayerCol();
+
+        // Close fight: search the duel a few moves deep within the time budget
+        if (Math.abs(playerRow - row) + Math.abs(playerCol - col) <= LOOKAHEAD_RANGE) {
+            Planner planner = plannerOf(arena);
+            Direction searched = plannedMove(planner == Planner.DEFAULT ? Planner.LOOKAHEAD : planner,
+                    enemy, arena, row, col);
+            if (searched != null)
+                return searched;
+        }
 
-        // Try strategic positioning (cut off escape routes)
-        Direction strategicDir = strategicPositioning(enemy, arena, predictedPlayer);
-        if (strategicDir != null) {
-            Position next = nextPos(pos, strategicDir);
-            if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
-                return strategicDir;
-            }
+        // Advanced anticipation + strategic positioning (cut off escape routes)
+        Direction strategicDir = strategicPositioning(arena, pos,
+                anticipateInterceptAdvanced(playerRow, playerCol, row, col));
+        if (strategicDir != null && isFree(arena, neighbour(arena, pos, strategicDir))) {
+            return strategicDir;
         }
 
         // Attempt flanking from multiple angles
-        Direction flankDir = attemptAdvancedFlank(enemy, arena, player);
+        Direction flankDir = attemptAdvancedFlank(arena, pos, playerRow, playerCol);
         if (flankDir != null) {
             return flankDir;
         }
@@ -167,26 +183,20 @@ public class AIController {
     // ===== Helper Methods for Advanced Behaviors =====
 
     private static Direction basicChase(Enemy enemy, ArenaView arena) {
-        Position player = arena.getPlayerPosition();
         Position pos = enemy.getPosition();
-
-        if (Math.abs(player.row - pos.row) > Math.abs(player.col - pos.col)) {
-            return player.row < pos.row ? Direction.UP : Direction.DOWN;
-        } else {
-            return player.col < pos.col ? Direction.LEFT : Direction.RIGHT;
-        }
+        return getDirectionToTarget(pos.row, pos.col, arena.getPlayerRow(), arena.getPlayerCol());
     }
 
-    // Anticipate where player will be based on current position
-    private static Position anticipatePlayerPosition(Position player, Position enemy) {
+    // Direction toward where the player will be, predicted from relative position
+    private static Direction anticipateIntercept(int playerRow, int playerCol, int row, int col) {
         // Simple prediction: assume player continues in direction of movement
         // Since we don't have player direction, predict based on relative position
-        int rowDiff = player.row - enemy.row;
-        int colDiff = player.col - enemy.col;
+        int rowDiff = playerRow - row;
+        int colDiff = playerCol - col;
 
         // Predict player moves 1-2 steps toward or away from enemy
-        int predictRow = player.row;
-        int predictCol = player.col;
+        int predictRow = playerRow;
+        int predictCol = playerCol;
 
         if (Math.abs(rowDiff) > Math.abs(colDiff)) {
             // Player likely moving vertically
@@ -196,18 +206,18 @@ public class AIController {
             predictCol += colDiff > 0 ? 1 : -1;
         }
 
-        return new Position(predictRow, predictCol);
+        return getDirectionToTarget(row, col, predictRow, predictCol);
     }
 
     // Advanced anticipation for Impossible difficulty
-    private static Position anticipatePlayerPositionAdvanced(Position player, Position enemy) {
+    private static Direction anticipateInterceptAdvanced(int playerRow, int playerCol, int row, int col) {
         // More sophisticated prediction: consider multiple possible moves
-        int rowDiff = player.row - enemy.row;
-        int colDiff = player.col - enemy.col;
+        int rowDiff = playerRow - row;
+        int colDiff = playerCol - col;
 
         // Predict 2 steps ahead with strategic thinking
-        int predictRow = player.row;
-        int predictCol = player.col;
+        int predictRow = playerRow;
+        int predictCol = playerCol;
 
         // If player is far, predict they'll move closer; if close, predict escape
         int distance = Math.abs(rowDiff) + Math.abs(colDiff);
@@ -228,13 +238,13 @@ public class AIController {
             }
         }
 
-        return new Position(predictRow, predictCol);
+        return getDirectionToTarget(row, col, predictRow, predictCol);
     }
 
     // Get direction to move toward a target position
-    private static Direction getDirectionToTarget(Position from, Position to) {
-        int rowDiff = to.row - from.row;
-        int colDiff = to.col - from.col;
+    private static Direction getDirectionToTarget(int fromRow, int fromCol, int toRow, int toCol) {
+        int rowDiff = toRow - fromRow;
+        int colDiff = toCol - fromCol;
 
         if (Math.abs(rowDiff) > Math.abs(colDiff)) {
             return rowDiff > 0 ? Direction.DOWN : Direction.UP;
@@ -244,34 +254,28 @@ public class AIController {
     }
 
     // Attempt to flank player from the side
-    private static Direction attemptFlank(Enemy enemy, ArenaView arena, Position player) {
-        Position pos = enemy.getPosition();
+    private static Direction attemptFlank(ArenaView arena, int pos, int playerRow, int playerCol) {
+        int cols = arena.getCols();
 
         // Calculate relative position
-        int rowDiff = player.row - pos.row;
-        int colDiff = player.col - pos.col;
+        int rowDiff = playerRow - pos / cols;
+        int colDiff = playerCol - pos % cols;
 
         // Try to approach from perpendicular direction
-        Direction[] flankOptions;
-
+        Direction first;
         if (Math.abs(rowDiff) > Math.abs(colDiff)) {
             // Player is more vertical, flank horizontally
-            flankOptions = new Direction[] {
-                    colDiff > 0 ? Direction.RIGHT : Direction.LEFT,
-                    colDiff > 0 ? Direction.LEFT : Direction.RIGHT
-            };
+            first = colDiff > 0 ? Direction.RIGHT : Direction.LEFT;
         } else {
             // Player is more horizontal, flank vertically
-            flankOptions = new Direction[] {
-                    rowDiff > 0 ? Direction.DOWN : Direction.UP,
-                    rowDiff > 0 ? Direction.UP : Direction.DOWN
-            };
+            first = rowDiff > 0 ? Direction.DOWN : Direction.UP;
         }
 
-        // Try flanking directions
-        for (Direction d : flankOptions) {
-            Position next = nextPos(pos, d);
-            if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
+        // Try flanking directions (toward the player's side first, then away)
+        for (int i = 0; i < 2; i++) {
+            Direction d = i == 0 ? first : OPPOSITE[first.ordinal()];
+            int next = neighbour(arena, pos, d);
+            if (isFree(arena, next) && !movesAway(arena, pos, next)) {
                 return d;
             }
         }
@@ -280,22 +284,16 @@ public class AIController {
     }
 
     // Advanced flanking for Impossible difficulty
-    private static Direction attemptAdvancedFlank(Enemy enemy, ArenaView arena, Position player) {
-        Position pos = enemy.getPosition();
-
-        // Try multiple flanking strategies
-        Direction[] strategies = {
-                attemptFlank(enemy, arena, player), // Basic flank
-                attemptDiagonalApproach(enemy, arena, player), // Diagonal approach
-                attemptCutoff(enemy, arena, player) // Cut off escape route
-        };
-
-        for (Direction d : strategies) {
-            if (d != null) {
-                Position next = nextPos(pos, d);
-                if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
-                    return d;
-                }
+    private static Direction attemptAdvancedFlank(ArenaView arena, int pos, int playerRow, int playerCol) {
+        // Try multiple flanking strategies: basic flank, diagonal approach, cut off escape route
+        for (int strategy = 0; strategy < 3; strategy++) {
+            Direction d = switch (strategy) {
+                case 0 -> attemptFlank(arena, pos, playerRow, playerCol);
+                case 1 -> attemptDiagonalApproach(arena, pos, playerRow, playerCol);
+                default -> attemptCutoff(arena, pos, playerRow, playerCol);
+            };
+            if (d != null && isFree(arena, neighbour(arena, pos, d))) {
+                return d;
             }
         }
 
@@ -303,55 +301,53 @@ public class AIController {
     }
 
     // Diagonal approach strategy
-    private static Direction attemptDiagonalApproach(Enemy enemy, ArenaView arena, Position player) {
-        Position pos = enemy.getPosition();
-        int rowDiff = player.row - pos.row;
-        int colDiff = player.col - pos.col;
+    private static Direction attemptDiagonalApproach(ArenaView arena, int pos, int playerRow, int playerCol) {
+        int cols = arena.getCols();
+        int rowDiff = playerRow - pos / cols;
+        int colDiff = playerCol - pos % cols;
 
         // Try to move in a direction that combines both axes
-        Direction[] diagonalOptions;
+        Direction vertical, horizontal;
 
         if (rowDiff > 0 && colDiff > 0) {
             // Player is down-right, try to approach from up-left
-            diagonalOptions = new Direction[] { Direction.UP, Direction.LEFT };
+            vertical = Direction.UP;
+            horizontal = Direction.LEFT;
         } else if (rowDiff > 0 && colDiff < 0) {
             // Player is down-left, try to approach from up-right
-            diagonalOptions = new Direction[] { Direction.UP, Direction.RIGHT };
+            vertical = Direction.UP;
+            horizontal = Direction.RIGHT;
         } else if (rowDiff < 0 && colDiff > 0) {
             // Player is up-right, try to approach from down-left
-            diagonalOptions = new Direction[] { Direction.DOWN, Direction.LEFT };
+            vertical = Direction.DOWN;
+            horizontal = Direction.LEFT;
         } else {
             // Player is up-left, try to approach from down-right
-            diagonalOptions = new Direction[] { Direction.DOWN, Direction.RIGHT };
-        }
-
-        for (Direction d : diagonalOptions) {
-            Position next = nextPos(pos, d);
-            if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
-                return d;
-            }
+            vertical = Direction.DOWN;
+            horizontal = Direction.RIGHT;
         }
 
+        if (isFree(arena, neighbour(arena, pos, vertical)))
+            return vertical;
+        if (isFree(arena, neighbour(arena, pos, horizontal)))
+            return horizontal;
         return null;
     }
 
     // Cut off escape route
-    private static Direction attemptCutoff(Enemy enemy, ArenaView arena, Position player) {
-        Position pos = enemy.getPosition();
+    private static Direction attemptCutoff(ArenaView arena, int pos, int playerRow, int playerCol) {
+        int cols = arena.getCols();
+        int row = pos / cols, col = pos % cols;
 
         // Try to position between player and likely escape direction
         // Check which directions player can escape to
-        Direction[] escapeDirections = {
-                Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT
-        };
-
-        for (Direction escapeDir : escapeDirections) {
-            Position escapePos = nextPos(player, escapeDir);
-            if (arena.isEmpty(escapePos.row, escapePos.col)) {
+        for (int k = 0; k < 4; k++) {
+            int escapeRow = playerRow + DR[k], escapeCol = playerCol + DC[k];
+            if (arena.isEmpty(escapeRow, escapeCol)) {
                 // Player can escape this way, try to cut them off
-                Direction cutoffDir = getDirectionToTarget(pos, escapePos);
-                Position next = nextPos(pos, cutoffDir);
-                if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
+                Direction cutoffDir = getDirectionToTarget(row, col, escapeRow, escapeCol);
+                int next = neighbour(arena, pos, cutoffDir);
+                if (isFree(arena, next) && !movesAway(arena, pos, next)) {
                     return cutoffDir;
                 }
             }
@@ -361,40 +357,17 @@ public class AIController {
     }
 
     // Strategic positioning to control the battlefield
-    private static Direction strategicPositioning(Enemy enemy, ArenaView arena, Position target) {
-        Position pos = enemy.getPosition();
-
-        // Try to position optimally relative to target
-        // Prefer positions that limit player's movement options
-
-        Direction[] strategicOptions = {
-                getDirectionToTarget(pos, target),
-                turnLeft(getDirectionToTarget(pos, target)),
-                turnRight(getDirectionToTarget(pos, target))
-        };
-
-        for (Direction d : strategicOptions) {
-            Position next = nextPos(pos, d);
-            if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
-                // Check if this position is strategically better
-                int optionsFromNext = countValidMoves(next, arena);
-                int optionsFromCurrent = countValidMoves(pos, arena);
-
-                if (optionsFromNext >= optionsFromCurrent) {
-                    return d;
-                }
-            }
-        }
-
-        return null;
+    private static Direction strategicPositioning(ArenaView arena, int pos, Direction toTarget) {
+        // Try to position optimally relative to target: straight on or either
+        // side, picking the option that claims the most space relative to the player
+        return territoryMove(arena, pos, STRATEGIC_OPTIONS[toTarget.ordinal()], 3);
     }
 
-    // Count valid moves from a position
-    private static int countValidMoves(Position pos, ArenaView arena) {
+    // Count valid moves from a cell
+    private static int countValidMoves(ArenaView arena, int cell) {
         int count = 0;
-        for (Direction d : Direction.values()) {
-            Position next = nextPos(pos, d);
-            if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
+        for (Direction d : DIRS) {
+            if (isFree(arena, neighbour(arena, cell, d))) {
                 count++;
             }
         }
@@ -404,53 +377,56 @@ public class AIController {
     // Chase with obstacle avoidance
     private static Direction chaseWithAvoidance(Enemy enemy, ArenaView arena) {
         Direction primary = chase(enemy, arena);
+        Direction found = firstFree(arena, cellOf(enemy, arena), primary);
+        return found != null ? found : enemy.getDirection(); // Stay in place if completely blocked
+    }
 
-        Direction[] options = {
-                primary,
-                turnLeft(primary),
-                turnRight(primary),
-                opposite(primary)
-        };
-
-        for (Direction d : options) {
-            Position next = nextPos(enemy.getPosition(), d);
-            if (arena.isEmpty(next.row, next.col) && !arena.isJetwall(next.row, next.col)) {
+    // primary, then turning left, right, and finally back; null if all blocked
+    private static Direction firstFree(ArenaView arena, int pos, Direction primary) {
+        int o = primary.ordinal();
+        for (int i = 0; i < 4; i++) {
+            Direction d = switch (i) {
+                case 0 -> primary;
+                case 1 -> LEFT_OF[o];
+                case 2 -> RIGHT_OF[o];
+                default -> OPPOSITE[o];
+            };
+            if (isFree(arena, neighbour(arena, pos, d)))
                 return d;
-            }
         }
-
-        return enemy.getDirection(); // Stay in place if completely blocked
+        return null;
     }
 
     // Advanced chase with comprehensive avoidance
     private static Direction advancedChaseAvoid(Enemy enemy, ArenaView arena) {
-        Position player = arena.getPlayerPosition();
-        Position pos = enemy.getPosition();
+        int pos = cellOf(enemy, arena);
+        int cols = arena.getCols();
+        int playerRow = arena.getPlayerRow(), playerCol = arena.getPlayerCol();
 
         // Calculate best approach considering obstacles
         Direction bestDir = null;
-        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestScore = Integer.MIN_VALUE;
 
-        for (Direction d : Direction.values()) {
-            Position next = nextPos(pos, d);
-
-            if (!arena.isEmpty(next.row, next.col) || arena.isJetwall(next.row, next.col)) {
+        for (Direction d : DIRS) {
+            int next = neighbour(arena, pos, d);
+            if (!isFree(arena, next)) {
                 continue; // Skip blocked directions
             }
+            int row = next / cols, col = next % cols;
 
-            // Score based on distance to player and safety
-            double distanceToPlayer = Math.sqrt(
-                    Math.pow(next.row - player.row, 2) +
-                            Math.pow(next.col - player.col, 2));
+            // Score based on distance to player and safety: path length when
+            // known, otherwise grid (Manhattan) distance
+            int distanceToPlayer = arena.distanceToPlayer(row, col);
+            if (distanceToPlayer < 0)
+                distanceToPlayer = Math.abs(row - playerRow) + Math.abs(col - playerCol);
 
             // Prefer closer to player, but avoid dangerous positions
-            double score = -distanceToPlayer;
+            int score = -distanceToPlayer;
 
             // Penalize positions near jetwalls
-            for (Direction checkDir : Direction.values()) {
-                Position checkPos = nextPos(next, checkDir);
-                if (arena.isJetwall(checkPos.row, checkPos.col)) {
-                    score -= 2.0; // Penalty for being near jetwall
+            for (int k = 0; k < 4; k++) {
+                if (arena.isJetwall(row + DR[k], col + DC[k])) {
+                    score -= JETWALL_PENALTY;
                 }
             }
 
@@ -463,40 +439,161 @@ public class AIController {
         return bestDir != null ? bestDir : enemy.getDirection();
     }
 
+    // ===== Distance field helpers =====
+
+    // Neighbour one step closer along the shortest path to the player, or null
+    // if the distance field does not cover this cell
+    private static Direction pathStep(ArenaView arena, int pos) {
+        int here = distanceToPlayer(arena, pos);
+        if (here < 0)
+            return null;
+
+        Direction best = null;
+        int bestDist = here;
+        for (Direction d : DIRS) {
+            int next = neighbour(arena, pos, d);
+            int dist = distanceToPlayer(arena, next);
+            if (dist >= 0 && dist < bestDist && isFree(arena, next)) {
+                bestDist = dist;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    // True if stepping to next takes us further from the player along the path
+    // (e.g. deeper into a dead end); unknown distances never count as moving away
+    private static boolean movesAway(ArenaView arena, int pos, int next) {
+        int here = distanceToPlayer(arena, pos);
+        int there = distanceToPlayer(arena, next);
+        return here >= 0 && there >= 0 && there > here;
+    }
+
+    private static int distanceToPlayer(ArenaView arena, int cell) {
+        if (cell == OFF_GRID)
+            return -1;
+        int cols = arena.getCols();
+        return arena.distanceToPlayer(cell / cols, cell % cols);
+    }
+
+    // Planner chosen by the simulation deciding against this view (DEFAULT outside one)
+    private static Planner plannerOf(ArenaView arena) {
+        return arena instanceof AIContext ctx ? ctx.getPlanner() : Planner.DEFAULT;
+    }
+
+    // Run a search planner within this tick's budget; null if out of time or no move.
+    // Outside a simulation every search gets the default budget of its own.
+    private static Direction plannedMove(Planner which, Enemy enemy, ArenaView arena, int row, int col) {
+        AIContext ctx = arena instanceof AIContext c ? c : null;
+        boolean deterministic = ctx != null && ctx.isDeterministicSearch();
+        long budget = 0;
+        if (!deterministic) {
+            budget = ctx == null ? LookaheadSearch.DEFAULT_BUDGET_NANOS
+                    : ctx.reserveSearchBudget(LookaheadSearch.DEFAULT_BUDGET_NANOS, LOOKAHEAD_MIN_BUDGET_NANOS);
+            if (budget <= 0)
+                return null;
+        }
+        if (which != Planner.MCTS) {
+            return deterministic ? LOOKAHEAD.get().searchNodes(arena, row, col, LookaheadSearch.DEFAULT_NODE_BUDGET)
+                    : LOOKAHEAD.get().search(arena, row, col, budget);
+        }
+        // one planner per match, one search at a time: each search already spreads over the pool
+        MctsPlanner mcts = ctx != null ? ctx.getMctsPlanner() : standaloneMcts();
+        synchronized (mcts) {
+            return deterministic ? mcts.planRollouts(arena, row, col, MctsPlanner.DEFAULT_ROLLOUT_BUDGET,
+                    enemy.getRandom().nextLong()) : mcts.plan(arena, row, col, budget);
+        }
+    }
+
+    private static synchronized MctsPlanner standaloneMcts() {
+        if (standaloneMcts == null)
+            standaloneMcts = new MctsPlanner();
+        return standaloneMcts;
+    }
+
+    // ===== Territory helpers =====
+
+    // Safe candidate (first count of candidates) with the best territory score;
+    // ties go to the shorter path to the player, then to the roomier cell.
+    // Null if none is safe.
+    private static Direction territoryMove(ArenaView arena, int pos, Direction[] candidates, int count) {
+        Direction best = null;
+        int bestScore = Integer.MIN_VALUE;
+        int bestDist = Integer.MAX_VALUE;
+        int bestMoves = -1;
+
+        for (int i = 0; i < count; i++) {
+            Direction d = candidates[i];
+            int next = neighbour(arena, pos, d);
+            if (!isFree(arena, next))
+                continue;
+            int score = territoryScore(arena, pos, next);
+            int dist = distanceToPlayer(arena, next);
+            if (dist < 0)
+                dist = Integer.MAX_VALUE - 1;
+            int moves = countValidMoves(arena, next);
+            if (score > bestScore
+                    || (score == bestScore && (dist < bestDist || (dist == bestDist && moves > bestMoves)))) {
+                best = d;
+                bestScore = score;
+                bestDist = dist;
+                bestMoves = moves;
+            }
+        }
+        return best;
+    }
+
+    // Cells we would own minus cells the player would own after stepping from
+    // pos to next (leaving a jetwall on pos). Other enemies compete for space
+    // too; on bounded searches only the ones that can reach the area count.
+    private static int territoryScore(ArenaView arena, int pos, int next) {
+        TerritoryEvaluator ev = TERRITORY.get();
+        int cols = arena.getCols();
+        int row = pos / cols, col = pos % cols;
+        int depth = arena.getRows() * cols > TERRITORY_FULL_ARENA_CELLS ? TERRITORY_DEPTH : 0;
+        int playerRow = arena.getPlayerRow(), playerCol = arena.getPlayerCol();
+
+        ev.reset(arena, depth);
+        int me = ev.addSource(next / cols, next % cols);
+        int opponent = ev.addSource(playerRow, playerCol);
+        int reach = 2 * depth + 2;
+        for (int i = 0; i < arena.getEnemyCount(); i++) {
+            int r = arena.getEnemyRow(i), c = arena.getEnemyCol(i);
+            if (r == row && c == col)
+                continue; // that's us
+            if (depth > 0 && Math.abs(r - row) + Math.abs(c - col) > reach
+                    && Math.abs(r - playerRow) + Math.abs(c - playerCol) > reach)
+                continue;
+            ev.addSource(r, c);
+        }
+        ev.block(row, col);
+        ev.run();
+        return ev.getTerritory(me) - ev.getTerritory(opponent);
+    }
+
     // ===== Helpers =====
-    private static Position nextPos(Position p, Direction d) {
-        return switch (d) {
-            case UP -> new Position(p.row - 1, p.col);
-            case DOWN -> new Position(p.row + 1, p.col);
-            case LEFT -> new Position(p.row, p.col - 1);
-            case RIGHT -> new Position(p.row, p.col + 1);
-        };
-    }
-
-    private static Direction turnLeft(Direction d) {
-        return switch (d) {
-            case UP -> Direction.LEFT;
-            case LEFT -> Direction.DOWN;
-            case DOWN -> Direction.RIGHT;
-            case RIGHT -> Direction.UP;
-        };
-    }
-
-    private static Direction turnRight(Direction d) {
-        return switch (d) {
-            case UP -> Direction.RIGHT;
-            case RIGHT -> Direction.DOWN;
-            case DOWN -> Direction.LEFT;
-            case LEFT -> Direction.UP;
-        };
-    }
-
-    private static Direction opposite(Direction d) {
-        return switch (d) {
-            case UP -> Direction.DOWN;
-            case DOWN -> Direction.UP;
-            case LEFT -> Direction.RIGHT;
-            case RIGHT -> Direction.LEFT;
-        };
+
+    private static int cellOf(Enemy enemy, ArenaView arena) {
+        Position p = enemy.getPosition();
+        return p.row * arena.getCols() + p.col;
+    }
+
+    // Packed neighbour of cell in direction d, or OFF_GRID
+    private static int neighbour(ArenaView arena, int cell, Direction d) {
+        if (cell == OFF_GRID)
+            return OFF_GRID;
+        int cols = arena.getCols();
+        int row = cell / cols + DR[d.ordinal()];
+        int col = cell % cols + DC[d.ordinal()];
+        if (row < 0 || row >= arena.getRows() || col < 0 || col >= cols)
+            return OFF_GRID;
+        return row * cols + col;
+    }
+
+    private static boolean isFree(ArenaView arena, int cell) {
+        if (cell == OFF_GRID)
+            return false;
+        int cols = arena.getCols();
+        return arena.isEmpty(cell / cols, cell % cols);
     }
 }
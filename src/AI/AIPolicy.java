@@ -0,0 +1,14 @@
+package src.AI;
+
+import src.Arena.ArenaView;
+import src.Enemy.Direction;
+import src.Enemy.Enemy;
+
+/**
+ * How an enemy picks its next move. Resolved once per enemy when it is
+ * created (see {@link AIPolicyRegistry}) so deciding a move costs no lookups.
+ */
+@FunctionalInterface
+public interface AIPolicy {
+    Direction decideMove(Enemy enemy, ArenaView arena);
+}
@@ -0,0 +1,50 @@
+package src.AI;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named AI policies. The four difficulty tiers are registered as "easy",
+ * "medium", "hard" and "impossible", and each enemy name from enemies.txt
+ * maps to its tier. Registering a policy under an enemy name (e.g. "clu")
+ * swaps in an experimental bot for enemies created afterwards; running
+ * enemies can be switched with Enemy.setPolicy.
+ *
+ * Names are case-insensitive.
+ */
+public class AIPolicyRegistry {
+    private static final Map<String, AIPolicy> policies = new ConcurrentHashMap<>();
+
+    static {
+        register("easy", AIController.EASY);
+        register("medium", AIController.MEDIUM);
+        register("hard", AIController.HARD);
+        register("impossible", AIController.IMPOSSIBLE);
+
+        register("koura", AIController.EASY);
+        register("sark", AIController.MEDIUM);
+        register("rinzler", AIController.HARD);
+        register("clu", AIController.IMPOSSIBLE);
+    }
+
+    public static void register(String name, AIPolicy policy) {
+        if (name == null || policy == null)
+            throw new IllegalArgumentException("policy name and policy are required");
+        policies.put(name.toLowerCase(), policy);
+    }
+
+    public static void unregister(String name) {
+        policies.remove(name.toLowerCase());
+    }
+
+    /** Policy registered under name, or null. */
+    public static AIPolicy get(String name) {
+        return name == null ? null : policies.get(name.toLowerCase());
+    }
+
+    /** Policy for an enemy name; unknown names get the Easy behaviour. */
+    public static AIPolicy forEnemy(String enemyName) {
+        AIPolicy policy = get(enemyName);
+        return policy != null ? policy : AIController.EASY;
+    }
+}
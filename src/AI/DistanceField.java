@@ -0,0 +1,316 @@
+package src.AI;
+
+import java.util.Arrays;
+import src.Arena.Arena;
+
+/**
+ * BFS distance map (in moves, through EMPTY cells) from one source cell,
+ * shared by every enemy so each query is an O(1) array read.
+ *
+ * {@link #update} is meant to be called at most once per tick, before the
+ * field is read. It does a full BFS only when the source moved to another
+ * cell (a one-cell move changes every reachable distance by one, so there is
+ * nothing to repair), the arena changed a lot, or the change log no longer
+ * covers the last update; when only a few cells changed it repairs the map
+ * in place: distances behind a newly blocked cell are
+ * invalidated and re-grown from their surviving neighbours, and a freed cell
+ * relaxes its surroundings. A non-zero radius bounds the search so big arenas
+ * only pay for the area around the source.
+ *
+ * Not thread-safe for writes; concurrent reads between updates are fine.
+ */
+public class DistanceField {
+    public static final int UNREACHABLE = -1;
+
+    // above this many changed cells a fresh BFS is cheaper than repairing
+    private static final int MAX_INCREMENTAL_CHANGES = 64;
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    private final int radius; // 0 = unbounded
+
+    private Arena arena;
+    private int rows, cols;
+    private int[] dist;
+    private int[] stamp; // dist[i] is valid only while stamp[i] == generation
+    private int generation;
+    private int[] queue;
+    private long[] heap = new long[64]; // (dist << 32) | cell, min-heap
+    private int heapSize;
+    private int[] affected = new int[64];
+    private final int[] changed = new int[MAX_INCREMENTAL_CHANGES];
+
+    private int sourceCell = -1;
+    private long arenaVersion = -1;
+    private int fullRebuilds, incrementalUpdates;
+
+    public DistanceField() {
+        this(0);
+    }
+
+    /** @param radius max distance explored (0 = whole arena) */
+    public DistanceField(int radius) {
+        this.radius = radius;
+    }
+
+    /** Bring the map up to date for the given arena and source cell. */
+    public void update(Arena arena, int sourceRow, int sourceCol) {
+        if (arena != this.arena || arena.getRows() != rows || arena.getCols() != cols)
+            attach(arena);
+
+        int source = sourceRow * cols + sourceCol;
+        long version = arena.getVersion();
+        if (source != sourceCell || arenaVersion < 0) {
+            rebuild(source, version);
+            return;
+        }
+        if (version == arenaVersion)
+            return;
+
+        int n = arena.getChangesSince(arenaVersion, version, changed);
+        if (n < 0) {
+            rebuild(source, version);
+            return;
+        }
+        repair(n);
+        arenaVersion = version;
+        incrementalUpdates++;
+    }
+
+    /** Moves from the source to (row, col), or UNREACHABLE. */
+    public int distance(int row, int col) {
+        if (dist == null || row < 0 || row >= rows || col < 0 || col >= cols)
+            return UNREACHABLE;
+        int i = row * cols + col;
+        return stamp[i] == generation ? dist[i] : UNREACHABLE;
+    }
+
+    public int getSourceRow() {
+        return sourceCell < 0 ? -1 : sourceCell / cols;
+    }
+
+    public int getSourceCol() {
+        return sourceCell < 0 ? -1 : sourceCell % cols;
+    }
+
+    public int getFullRebuilds() {
+        return fullRebuilds;
+    }
+
+    public int getIncrementalUpdates() {
+        return incrementalUpdates;
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private void attach(Arena arena) {
+        this.arena = arena;
+        this.rows = arena.getRows();
+        this.cols = arena.getCols();
+        int size = rows * cols;
+        if (dist == null || dist.length < size) {
+            dist = new int[size];
+            stamp = new int[size];
+            queue = new int[size];
+        } else {
+            Arrays.fill(stamp, 0, size, 0);
+        }
+        generation = 0;
+        sourceCell = -1;
+        arenaVersion = -1;
+    }
+
+    private boolean passable(int cell) {
+        return arena.isEmpty(cell / cols, cell % cols);
+    }
+
+    private int get(int cell) {
+        return stamp[cell] == generation ? dist[cell] : UNREACHABLE;
+    }
+
+    private void set(int cell, int d) {
+        dist[cell] = d;
+        stamp[cell] = generation;
+    }
+
+    private void clear(int cell) {
+        stamp[cell] = generation - 1;
+    }
+
+    private void rebuild(int source, long version) {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        sourceCell = source;
+        arenaVersion = version;
+        fullRebuilds++;
+
+        int head = 0, tail = 0;
+        set(source, 0);
+        queue[tail++] = source;
+        while (head < tail) {
+            int cell = queue[head++];
+            int d = dist[cell];
+            if (radius > 0 && d >= radius)
+                continue;
+            int r = cell / cols, c = cell % cols;
+            for (int k = 0; k < 4; k++) {
+                int nr = r + DR[k], nc = c + DC[k];
+                if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
+                    continue;
+                int next = nr * cols + nc;
+                if (get(next) == UNREACHABLE && passable(next)) {
+                    set(next, d + 1);
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    // Incremental fix-up for the n cells in changed[]
+    private void repair(int n) {
+        int affectedCount = 0;
+        heapSize = 0;
+
+        // 1) newly blocked cells: find every cell whose shortest path went through them.
+        // Cells are examined in increasing old distance, so a cell's possible parents
+        // (one step closer) are already decided when it is looked at.
+        for (int i = 0; i < n; i++) {
+            int cell = changed[i];
+            if (cell == sourceCell || passable(cell))
+                continue;
+            int d = get(cell);
+            if (d == UNREACHABLE)
+                continue;
+            clear(cell);
+            pushChildren(cell, d);
+        }
+        while (heapSize > 0) {
+            long top = pop();
+            int cell = (int) top;
+            int d = (int) (top >>> 32);
+            if (get(cell) != d)
+                continue; // already invalidated
+            if (hasParent(cell, d))
+                continue;
+            clear(cell);
+            affected = ensure(affected, affectedCount + 1);
+            affected[affectedCount++] = cell;
+            pushChildren(cell, d);
+        }
+
+        // 2) seed invalidated cells and freed cells from their best surviving neighbour
+        for (int i = 0; i < affectedCount; i++)
+            seed(affected[i]);
+        for (int i = 0; i < n; i++) {
+            int cell = changed[i];
+            if (passable(cell))
+                seed(cell);
+        }
+
+        // 3) grow distances back out (Dijkstra with unit weights)
+        while (heapSize > 0) {
+            long top = pop();
+            int cell = (int) top;
+            int d = (int) (top >>> 32);
+            int cur = get(cell);
+            if (cur != UNREACHABLE && cur <= d)
+                continue;
+            set(cell, d);
+            if (radius > 0 && d >= radius)
+                continue;
+            int r = cell / cols, c = cell % cols;
+            for (int k = 0; k < 4; k++) {
+                int nr = r + DR[k], nc = c + DC[k];
+                if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
+                    continue;
+                int next = nr * cols + nc;
+                int nd = get(next);
+                if ((nd == UNREACHABLE || nd > d + 1) && passable(next))
+                    push(d + 1, next);
+            }
+        }
+    }
+
+    private void pushChildren(int cell, int d) {
+        int r = cell / cols, c = cell % cols;
+        for (int k = 0; k < 4; k++) {
+            int nr = r + DR[k], nc = c + DC[k];
+            if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
+                continue;
+            int next = nr * cols + nc;
+            if (get(next) == d + 1)
+                push(d + 1, next);
+        }
+    }
+
+    private boolean hasParent(int cell, int d) {
+        int r = cell / cols, c = cell % cols;
+        for (int k = 0; k < 4; k++) {
+            int nr = r + DR[k], nc = c + DC[k];
+            if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
+                continue;
+            int next = nr * cols + nc;
+            if (get(next) == d - 1 && passable(next))
+                return true;
+        }
+        return false;
+    }
+
+    private void seed(int cell) {
+        if (!passable(cell))
+            return;
+        int best = UNREACHABLE;
+        int r = cell / cols, c = cell % cols;
+        for (int k = 0; k < 4; k++) {
+            int nr = r + DR[k], nc = c + DC[k];
+            if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
+                continue;
+            int d = get(nr * cols + nc);
+            if (d != UNREACHABLE && (best == UNREACHABLE || d < best))
+                best = d;
+        }
+        if (best != UNREACHABLE && (radius == 0 || best < radius))
+            push(best + 1, cell);
+    }
+
+    private void push(int d, int cell) {
+        if (heapSize == heap.length)
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        long key = ((long) d << 32) | cell;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key)
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child])
+                child++;
+            if (heap[child] >= last)
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    private static int[] ensure(int[] a, int size) {
+        return size <= a.length ? a : Arrays.copyOf(a, a.length * 2);
+    }
+}
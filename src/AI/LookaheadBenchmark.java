@@ -0,0 +1,127 @@
+package src.AI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import src.Arena.Arena;
+import src.Characters.CharacterLoader;
+import src.Characters.Characters;
+import src.Enemy.Direction;
+import src.Enemy.Enemy;
+import src.Simulation.Simulation;
+
+/**
+ * Headless benchmark for the close-fight planners (alpha-beta lookahead or MCTS).
+ *
+ * Plays Impossible rounds with a player that turns at random and reports
+ * (1) the cost of individual searches sampled from live positions and
+ * (2) whole game-tick times against the 60 FPS frame budget, so a search
+ * change that causes frame spikes shows up here before it shows up in game.
+ *
+ * The first rounds only warm up the JIT; interpreted searches overshoot the
+ * budget and would hide what the game sees after a few seconds of play.
+ *
+ * Run from the project root: java src.AI.LookaheadBenchmark [rounds] [lookahead|mcts]
+ */
+public class LookaheadBenchmark {
+    private static final long FRAME_BUDGET_NANOS = 1_000_000_000L / Simulation.TICKS_PER_SECOND;
+    private static final int WARMUP_ROUNDS = 8; // let the JIT compile the search before measuring
+    private static final String[] ARENAS = { "ClassicGrid", "NeonMaze", "OpenFrontier", "Procedural" };
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        ArrayList<Characters> characters = CharacterLoader.loadCharacters("Characters.txt");
+        if (characters == null || characters.isEmpty()) {
+            System.out.println("Characters.txt not found on the classpath");
+            return;
+        }
+
+        boolean mcts = args.length > 1 && args[1].equalsIgnoreCase("mcts");
+        LookaheadSearch search = new LookaheadSearch();
+        MctsPlanner planner = new MctsPlanner();
+        long rollouts = 0;
+        Random rnd = new Random(42);
+        long[] searchTimes = new long[1 << 16];
+        int searches = 0;
+        long depthSum = 0, nodeSum = 0;
+        long[] tickTimes = new long[1 << 20];
+        int ticks = 0;
+
+        for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+            if (round == 0) {
+                searches = 0;
+                ticks = 0;
+                depthSum = 0;
+                nodeSum = 0;
+                rollouts = 0;
+            }
+            Arena arena = new Arena(ARENAS[Math.floorMod(round, ARENAS.length)], (long) round);
+            Simulation sim = new Simulation(arena, characters.get(0), "IMPOSSIBLE", 1);
+            sim.setPlanner(mcts ? AIController.Planner.MCTS : AIController.Planner.DEFAULT);
+            Direction[] dirs = Direction.values();
+
+            while (sim.isRunning() && sim.getTick() < 3000) {
+                if (sim.getTick() % 20 == 0) {
+                    sim.getInput().stop();
+                    sim.getInput().press(dirs[rnd.nextInt(dirs.length)]);
+                }
+
+                // sample searches from the current position (outside the tick timing)
+                if (sim.getTick() % 30 == 0) {
+                    for (Enemy e : sim.getEnemies()) {
+                        if (!e.isAlive() || searches == searchTimes.length)
+                            continue;
+                        long t0 = System.nanoTime();
+                        if (mcts) {
+                            planner.plan(arena, e.getPosition().row, e.getPosition().col,
+                                    MctsPlanner.DEFAULT_BUDGET_NANOS);
+                            rollouts += planner.getRollouts();
+                        } else {
+                            search.search(arena, e.getPosition().row, e.getPosition().col,
+                                    LookaheadSearch.DEFAULT_BUDGET_NANOS);
+                            depthSum += search.getCompletedDepth();
+                            nodeSum += search.getNodes();
+                        }
+                        searchTimes[searches++] = System.nanoTime() - t0;
+                    }
+                }
+
+                long t0 = System.nanoTime();
+                sim.tick();
+                if (ticks < tickTimes.length)
+                    tickTimes[ticks++] = System.nanoTime() - t0;
+            }
+        }
+
+        if (mcts) {
+            System.out.printf("MCTS searches: %d, budget %.2f ms, %d workers, avg rollouts %d%n", searches,
+                    MctsPlanner.DEFAULT_BUDGET_NANOS / 1e6, planner.getWorkerCount(),
+                    searches == 0 ? 0 : rollouts / searches);
+        } else {
+            System.out.printf("searches: %d, budget %.2f ms, avg depth %.1f plies, avg nodes %d%n", searches,
+                    LookaheadSearch.DEFAULT_BUDGET_NANOS / 1e6, searches == 0 ? 0.0 : (double) depthSum / searches,
+                    searches == 0 ? 0 : nodeSum / searches);
+        }
+        report("search", searchTimes, searches);
+        report("tick", tickTimes, ticks);
+
+        long over = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (tickTimes[i] > FRAME_BUDGET_NANOS)
+                over++;
+        }
+        System.out.printf("ticks over the %.2f ms frame budget: %d of %d%n", FRAME_BUDGET_NANOS / 1e6, over, ticks);
+    }
+
+    private static void report(String label, long[] times, int count) {
+        if (count == 0)
+            return;
+        long[] sorted = Arrays.copyOf(times, count);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long t : sorted)
+            sum += t;
+        System.out.printf("%-6s avg %.3f ms  p50 %.3f  p99 %.3f  max %.3f%n", label, sum / 1e6 / count,
+                sorted[count / 2] / 1e6, sorted[(int) (count * 0.99)] / 1e6, sorted[count - 1] / 1e6);
+    }
+}
@@ -0,0 +1,185 @@
+package src.AI;
+
+import src.Arena.ArenaView;
+import src.Enemy.Direction;
+
+/**
+ * Iterative-deepening alpha-beta search between one enemy and the player.
+ *
+ * The two bikes move alternately (enemy first), each leaving a jetwall on the
+ * cell it left; other enemies are treated as fixed obstacles. A side with no
+ * free neighbour loses, otherwise leaves are scored by Voronoi territory
+ * (enemy minus player) in a bounded neighbourhood. Depth grows one ply at a
+ * time until the time budget runs out; the line from the last completed depth
+ * is kept, so a result is always available once depth 1 finished.
+ *
+ * Works on a {@link SearchGrid} overlay and never allocates per node. One
+ * instance per thread.
+ */
+public class LookaheadSearch {
+    public static final long DEFAULT_BUDGET_NANOS = 1_000_000; // per decision
+    public static final long DEFAULT_NODE_BUDGET = 400; // about the same on a desktop CPU
+    public static final int MAX_DEPTH = 24; // plies
+
+    private static final int WIN = 1_000_000;
+    private static final int INF = Integer.MAX_VALUE; // not MIN_VALUE, so -INF doesn't overflow
+    private static final int LEAF_TERRITORY_DEPTH = 10;
+    private static final int CLOCK_CHECK_MASK = 7; // read the clock every 8 nodes
+
+    private static final Direction[] DIRS = Direction.values();
+    private static final int[] DR = { -1, 1, 0, 0 }; // same order as Direction
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    private final SearchGrid grid = new SearchGrid();
+    private final TerritoryEvaluator territory = new TerritoryEvaluator();
+
+    private final int[] rowOf = new int[2]; // 0 = searching enemy, 1 = player
+    private final int[] colOf = new int[2];
+
+    // triangular principal-variation table, direction ordinals
+    private final int[][] pv = new int[MAX_DEPTH + 1][MAX_DEPTH + 1];
+    private final int[] pvLength = new int[MAX_DEPTH + 1];
+    private final int[] bestLine = new int[MAX_DEPTH];
+    private int bestLineLength;
+    private int bestScore;
+
+    private long deadline;
+    private long nodeLimit;
+    private boolean aborted;
+    private long nodes;
+    private int completedDepth;
+
+    /**
+     * Best move for the enemy at (row, col) against the player on the given
+     * view, searching until budgetNanos elapsed. Returns null if the enemy has
+     * no free neighbour or not even depth 1 completed.
+     */
+    public Direction search(ArenaView arena, int row, int col, long budgetNanos) {
+        deadline = System.nanoTime() + budgetNanos;
+        nodeLimit = Long.MAX_VALUE;
+        return run(arena, row, col);
+    }
+
+    /**
+     * Same as {@link #search} but stops after maxNodes nodes instead of a time
+     * budget, so the result only depends on the position (reproducible
+     * matches) at the cost of a machine-dependent running time.
+     */
+    public Direction searchNodes(ArenaView arena, int row, int col, long maxNodes) {
+        deadline = Long.MAX_VALUE;
+        nodeLimit = maxNodes;
+        return run(arena, row, col);
+    }
+
+    private Direction run(ArenaView arena, int row, int col) {
+        aborted = false;
+        nodes = 0;
+        completedDepth = 0;
+        bestLineLength = 0;
+        bestScore = 0;
+
+        grid.reset(arena);
+        for (int i = 0; i < arena.getEnemyCount(); i++) {
+            int r = arena.getEnemyRow(i), c = arena.getEnemyCol(i);
+            if (r != row || c != col)
+                grid.block(r, c);
+        }
+        rowOf[0] = row;
+        colOf[0] = col;
+        rowOf[1] = arena.getPlayerRow();
+        colOf[1] = arena.getPlayerCol();
+
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            int score = negamax(depth, 0, -INF, INF, 0);
+            if (aborted)
+                break;
+            completedDepth = depth;
+            bestScore = score;
+            bestLineLength = pvLength[0];
+            System.arraycopy(pv[0], 0, bestLine, 0, bestLineLength);
+            if (Math.abs(score) >= WIN - MAX_DEPTH)
+                break; // forced win or loss found, deeper won't change it
+        }
+        return bestLineLength > 0 ? DIRS[bestLine[0]] : null;
+    }
+
+    /** Depth (plies) of the last completed iteration. */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /** Score of the last completed iteration, from the enemy's side. */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Principal variation (alternating enemy / player moves) of the last completed depth. */
+    public Direction[] getBestLine() {
+        Direction[] line = new Direction[bestLineLength];
+        for (int i = 0; i < bestLineLength; i++)
+            line[i] = DIRS[bestLine[i]];
+        return line;
+    }
+
+    /* ================= SEARCH ================= */
+
+    // Score from the point of view of side (0 = enemy, 1 = player), who is to move
+    private int negamax(int depth, int ply, int alpha, int beta, int side) {
+        pvLength[ply] = 0;
+        if ((++nodes & CLOCK_CHECK_MASK) == 0 && (nodes > nodeLimit || System.nanoTime() > deadline)) {
+            aborted = true;
+            return 0;
+        }
+        if (depth == 0)
+            return evaluate(side);
+
+        int row = rowOf[side], col = colOf[side];
+        int otherRow = rowOf[1 - side], otherCol = colOf[1 - side];
+        int best = -INF;
+
+        // try the previous iteration's move first
+        int first = ply < bestLineLength ? bestLine[ply] : 0;
+        for (int i = 0; i < 4; i++) {
+            int k = i == 0 ? first : (i <= first ? i - 1 : i);
+            int nr = row + DR[k], nc = col + DC[k];
+            if (!grid.isEmpty(nr, nc) || (nr == otherRow && nc == otherCol))
+                continue;
+
+            grid.block(row, col); // trail
+            rowOf[side] = nr;
+            colOf[side] = nc;
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, 1 - side);
+            rowOf[side] = row;
+            colOf[side] = col;
+            grid.undo();
+            if (aborted)
+                return 0;
+
+            if (score > best) {
+                best = score;
+                pv[ply][0] = k;
+                System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+                pvLength[ply] = pvLength[ply + 1] + 1;
+                if (score > alpha)
+                    alpha = score;
+                if (alpha >= beta)
+                    break;
+            }
+        }
+        if (best == -INF)
+            return -WIN + ply; // boxed in: lose, but as late as possible
+        return best;
+    }
+
+    private int evaluate(int side) {
+        territory.reset(grid, LEAF_TERRITORY_DEPTH);
+        int me = territory.addSource(rowOf[side], colOf[side]);
+        int other = territory.addSource(rowOf[1 - side], colOf[1 - side]);
+        territory.run();
+        return territory.getTerritory(me) - territory.getTerritory(other);
+    }
+}
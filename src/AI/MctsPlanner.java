@@ -0,0 +1,342 @@
+package src.AI;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import src.Arena.ArenaView;
+import src.Enemy.Direction;
+
+/**
+ * Monte-Carlo tree search for one enemy against the player.
+ *
+ * Root-parallel: every worker grows its own UCT tree on its own
+ * {@link SearchGrid} over the shared (read-only while planning) arena, with
+ * random-playout rollouts, until the deadline. The root visit counts of all
+ * workers are then summed and the most visited move wins, so more pool
+ * threads mean more rollouts in the same budget.
+ *
+ * Bikes move alternately (enemy first) and leave a jetwall behind; a side
+ * with no free neighbour loses. Other enemies are fixed obstacles. Trees live
+ * in per-worker arrays that are reused between calls, which makes a planner
+ * a few MB: share one and run one search on it at a time.
+ */
+public class MctsPlanner {
+    public static final long DEFAULT_BUDGET_NANOS = 1_000_000; // per decision
+    public static final long DEFAULT_ROLLOUT_BUDGET = 2_000; // about the same on a desktop CPU
+
+    private static final int MAX_NODES = 1 << 14; // per worker
+    private static final int MAX_PATH = 256;
+    private static final int ROLLOUT_PLIES = 80;
+    private static final double EXPLORATION = 1.41;
+    private static final int DETERMINISTIC_WORKERS = 4; // trees per planRollouts call, whatever the pool size
+
+    private static final Direction[] DIRS = Direction.values();
+    private static final int[] DR = { -1, 1, 0, 0 }; // same order as Direction
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Worker[] workers;
+    private final RootTask root;
+    private final long[] visits = new long[4];
+    private final double[] wins = new double[4];
+    private long rollouts;
+
+    public MctsPlanner() {
+        this(ForkJoinPool.commonPool(), System.nanoTime());
+    }
+
+    public MctsPlanner(ForkJoinPool pool, long seed) {
+        this.pool = pool;
+        SplittableRandom seeds = new SplittableRandom(seed);
+        parallelism = Math.max(1, pool.getParallelism());
+        workers = new Worker[Math.max(parallelism, DETERMINISTIC_WORKERS)];
+        for (int i = 0; i < workers.length; i++)
+            workers[i] = new Worker(seeds.nextLong());
+        root = new RootTask(workers);
+    }
+
+    /**
+     * Best move for the enemy at (row, col) against the player, planning for
+     * budgetNanos across the pool. Returns null if the enemy has no free move.
+     * The arena must not be mutated until this returns.
+     */
+    public Direction plan(ArenaView arena, int row, int col, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int i = 0; i < parallelism; i++) {
+            Worker w = workers[i];
+            w.reinitialize();
+            w.prepare(arena, row, col, arena.getPlayerRow(), arena.getPlayerCol(), deadline, Long.MAX_VALUE);
+        }
+        return run(parallelism);
+    }
+
+    /**
+     * Same as {@link #plan} but with a fixed number of rollouts split across a
+     * fixed number of trees, with streams derived from seed, so the result
+     * only depends on the position and the seed, not on the machine's core
+     * count (pools of fewer threads just take longer).
+     */
+    public Direction planRollouts(ArenaView arena, int row, int col, long rollouts, long seed) {
+        long perWorker = Math.max(1, (rollouts + DETERMINISTIC_WORKERS - 1) / DETERMINISTIC_WORKERS);
+        for (int i = 0; i < DETERMINISTIC_WORKERS; i++) {
+            Worker w = workers[i];
+            w.reinitialize();
+            w.seed(mix64(seed + i));
+            w.prepare(arena, row, col, arena.getPlayerRow(), arena.getPlayerCol(), Long.MAX_VALUE, perWorker);
+        }
+        return run(DETERMINISTIC_WORKERS);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Runs the first count workers and merges their root statistics
+    private Direction run(int count) {
+        root.reinitialize();
+        root.count = count;
+        pool.invoke(root);
+
+        rollouts = 0;
+        for (int k = 0; k < 4; k++) {
+            visits[k] = 0;
+            wins[k] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            Worker w = workers[i];
+            rollouts += w.rollouts;
+            for (int k = 0; k < 4; k++) {
+                visits[k] += w.rootVisits[k];
+                wins[k] += w.rootWins[k];
+            }
+        }
+
+        int best = -1;
+        for (int k = 0; k < 4; k++) {
+            if (visits[k] > 0 && (best < 0 || visits[k] > visits[best]))
+                best = k;
+        }
+        return best < 0 ? null : DIRS[best];
+    }
+
+    /** Rollouts done by all workers in the last {@link #plan} call. */
+    public long getRollouts() {
+        return rollouts;
+    }
+
+    /** Merged root win rate of a move in the last plan (enemy's view), or -1 if unvisited. */
+    public double getWinRate(Direction move) {
+        int k = move.ordinal();
+        return visits[k] == 0 ? -1 : wins[k] / visits[k];
+    }
+
+    /** Trees grown in parallel by {@link #plan}: one per pool thread. */
+    public int getWorkerCount() {
+        return parallelism;
+    }
+
+    private static class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Worker[] workers;
+        int count;
+
+        RootTask(Worker[] workers) {
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = 1; i < count; i++)
+                workers[i].fork();
+            workers[0].invoke();
+            for (int i = count - 1; i > 0; i--)
+                workers[i].join();
+        }
+    }
+
+    /* ================= WORKER ================= */
+
+    private static class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SearchGrid grid = new SearchGrid();
+        private long rngState; // SplitMix64, reseedable without allocating
+
+        // tree: child[node * 4 + k] (0 = not expanded), stats from the view of
+        // the side that moved into the node
+        private final int[] child = new int[MAX_NODES * 4];
+        private final int[] nodeVisits = new int[MAX_NODES];
+        private final double[] nodeWins = new double[MAX_NODES];
+        private int nodeCount;
+
+        private final int[] path = new int[MAX_PATH];
+        private final int[] rowOf = new int[2]; // 0 = enemy, 1 = player
+        private final int[] colOf = new int[2];
+        private final int[] moves = new int[4];
+
+        private ArenaView arena;
+        private int startRow, startCol, playerRow, playerCol;
+        private long deadline;
+        private long maxRollouts;
+
+        final long[] rootVisits = new long[4];
+        final double[] rootWins = new double[4];
+        long rollouts;
+
+        Worker(long seed) {
+            this.rngState = seed;
+        }
+
+        void seed(long seed) {
+            rngState = seed;
+        }
+
+        // Uniform in [0, bound)
+        private int nextInt(int bound) {
+            long z = mix64(rngState += 0x9E3779B97F4A7C15L);
+            return (int) (((z >>> 32) * bound) >>> 32);
+        }
+
+        void prepare(ArenaView arena, int row, int col, int playerRow, int playerCol, long deadline,
+                long maxRollouts) {
+            this.arena = arena;
+            this.startRow = row;
+            this.startCol = col;
+            this.playerRow = playerRow;
+            this.playerCol = playerCol;
+            this.deadline = deadline;
+            this.maxRollouts = maxRollouts;
+        }
+
+        @Override
+        protected void compute() {
+            grid.reset(arena);
+            for (int i = 0; i < arena.getEnemyCount(); i++) {
+                int r = arena.getEnemyRow(i), c = arena.getEnemyCol(i);
+                if (r != startRow || c != startCol)
+                    grid.block(r, c);
+            }
+            int base = grid.mark();
+
+            nodeCount = 1;
+            clearNode(0);
+            rollouts = 0;
+            do {
+                rowOf[0] = startRow;
+                colOf[0] = startCol;
+                rowOf[1] = playerRow;
+                colOf[1] = playerCol;
+                iterate();
+                grid.undoTo(base);
+                rollouts++;
+            } while (rollouts < maxRollouts && System.nanoTime() < deadline);
+
+            for (int k = 0; k < 4; k++) {
+                int c = child[k];
+                rootVisits[k] = c == 0 ? 0 : nodeVisits[c];
+                rootWins[k] = c == 0 ? 0 : nodeWins[c];
+            }
+        }
+
+        // One selection / expansion / rollout / backpropagation pass
+        private void iterate() {
+            int node = 0, side = 0, depth = 0;
+            double result; // 1 = enemy wins, 0 = player wins
+            path[depth++] = 0;
+
+            while (true) {
+                int n = legalMoves(side);
+                if (n == 0) {
+                    result = side == 0 ? 0 : 1;
+                    break;
+                }
+                int untried = -1, seen = 0;
+                for (int i = 0; i < n; i++) {
+                    if (child[node * 4 + moves[i]] == 0 && nextInt(++seen) == 0)
+                        untried = moves[i];
+                }
+                if (untried >= 0 && nodeCount < MAX_NODES && depth < MAX_PATH) {
+                    int c = nodeCount++;
+                    clearNode(c);
+                    child[node * 4 + untried] = c;
+                    play(side, untried);
+                    path[depth++] = c;
+                    result = rollout(1 - side);
+                    break;
+                }
+                if (untried >= 0 || depth >= MAX_PATH) {
+                    // tree full: just play it out from here
+                    result = rollout(side);
+                    break;
+                }
+                int k = select(node, n);
+                play(side, k);
+                node = child[node * 4 + k];
+                path[depth++] = node;
+                side = 1 - side;
+            }
+
+            // path[i] (i >= 1) was entered by side (i - 1) % 2
+            nodeVisits[0]++;
+            for (int i = 1; i < depth; i++) {
+                int c = path[i];
+                nodeVisits[c]++;
+                nodeWins[c] += ((i - 1) & 1) == 0 ? result : 1 - result;
+            }
+        }
+
+        private int select(int node, int n) {
+            double logParent = Math.log(nodeVisits[node] + 1);
+            int best = moves[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                int c = child[node * 4 + moves[i]];
+                double value = nodeWins[c] / nodeVisits[c] + EXPLORATION * Math.sqrt(logParent / nodeVisits[c]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = moves[i];
+                }
+            }
+            return best;
+        }
+
+        private double rollout(int side) {
+            for (int ply = 0; ply < ROLLOUT_PLIES; ply++) {
+                int n = legalMoves(side);
+                if (n == 0)
+                    return side == 0 ? 0 : 1;
+                play(side, moves[nextInt(n)]);
+                side = 1 - side;
+            }
+            return 0.5;
+        }
+
+        // Fills moves[] with the free directions of side; returns how many
+        private int legalMoves(int side) {
+            int row = rowOf[side], col = colOf[side];
+            int otherRow = rowOf[1 - side], otherCol = colOf[1 - side];
+            int n = 0;
+            for (int k = 0; k < 4; k++) {
+                int nr = row + DR[k], nc = col + DC[k];
+                if (grid.isEmpty(nr, nc) && (nr != otherRow || nc != otherCol))
+                    moves[n++] = k;
+            }
+            return n;
+        }
+
+        private void play(int side, int k) {
+            grid.block(rowOf[side], colOf[side]);
+            rowOf[side] += DR[k];
+            colOf[side] += DC[k];
+        }
+
+        private void clearNode(int node) {
+            nodeVisits[node] = 0;
+            nodeWins[node] = 0;
+            for (int k = 0; k < 4; k++)
+                child[node * 4 + k] = 0;
+        }
+    }
+}
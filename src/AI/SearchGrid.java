@@ -0,0 +1,146 @@
+package src.AI;
+
+import java.util.Arrays;
+import src.Arena.ArenaView;
+import src.Enemy.Position;
+
+/**
+ * Copy-on-write view of an arena for lookahead.
+ *
+ * Reads go to the live arena; cells blocked during a search (trails left by
+ * hypothetical moves, other enemies' bodies) live in a small bitset overlay
+ * with an undo stack, so trying a move is push/pop of one bit instead of
+ * copying the grid. Resetting clears only the bits that were set, and the
+ * buffers are kept between searches. One instance per thread.
+ */
+public class SearchGrid implements ArenaView {
+    private ArenaView base;
+    private int rows, cols;
+    private long[] overlay = new long[0];
+    private int[] stack = new int[64];
+    private int size;
+    private int playerRow, playerCol;
+
+    /** Start a new search on top of base (drops every overlay cell). */
+    public void reset(ArenaView base) {
+        while (size > 0)
+            clearBit(stack[--size]);
+        this.base = base;
+        this.rows = base.getRows();
+        this.cols = base.getCols();
+        int words = (rows * cols + 63) >>> 6;
+        if (overlay.length < words)
+            overlay = new long[words];
+        playerRow = base.getPlayerRow();
+        playerCol = base.getPlayerCol();
+    }
+
+    /** Block (row, col) until the matching {@link #undo()}. */
+    public void block(int row, int col) {
+        int cell = row * cols + col;
+        if (size == stack.length)
+            stack = Arrays.copyOf(stack, size * 2);
+        if ((overlay[cell >>> 6] & (1L << cell)) != 0) {
+            stack[size++] = -1; // already blocked: nothing to revert
+            return;
+        }
+        stack[size++] = cell;
+        overlay[cell >>> 6] |= 1L << cell;
+    }
+
+    /** Reverts the most recent {@link #block}. */
+    public void undo() {
+        clearBit(stack[--size]);
+    }
+
+    /** Number of overlay cells (use with {@link #undoTo} to roll back a line). */
+    public int mark() {
+        return size;
+    }
+
+    public void undoTo(int mark) {
+        while (size > mark)
+            clearBit(stack[--size]);
+    }
+
+    public void setPlayerPosition(int row, int col) {
+        playerRow = row;
+        playerCol = col;
+    }
+
+    private void clearBit(int cell) {
+        if (cell >= 0)
+            overlay[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private boolean blocked(int row, int col) {
+        int cell = row * cols + col;
+        return (overlay[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public boolean isWall(int row, int col) {
+        return base.isWall(row, col);
+    }
+
+    @Override
+    public boolean isJetwall(int row, int col) {
+        return base.isJetwall(row, col) || (inBounds(row, col) && blocked(row, col));
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return base.isEmpty(row, col) && !blocked(row, col);
+    }
+
+    @Override
+    public Position getPlayerPosition() {
+        return new Position(playerRow, playerCol);
+    }
+
+    @Override
+    public int getPlayerRow() {
+        return playerRow;
+    }
+
+    @Override
+    public int getPlayerCol() {
+        return playerCol;
+    }
+
+    @Override
+    public long getTick() {
+        return base.getTick();
+    }
+
+    @Override
+    public int getEnemyCount() {
+        return base.getEnemyCount();
+    }
+
+    @Override
+    public int getEnemyRow(int index) {
+        return base.getEnemyRow(index);
+    }
+
+    @Override
+    public int getEnemyCol(int index) {
+        return base.getEnemyCol(index);
+    }
+
+    // distanceToPlayer stays -1: the base field does not know about hypothetical trails
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+}
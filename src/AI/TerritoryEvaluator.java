@@ -0,0 +1,226 @@
+package src.AI;
+
+import java.util.Arrays;
+import src.Arena.ArenaView;
+
+/**
+ * Voronoi territory count: a multi-source BFS over the EMPTY cells of an
+ * {@link ArenaView} where every cell belongs to the agent that reaches it
+ * first. Cells reached by two agents on the same step are contested and
+ * belong to nobody (and are not expanded further).
+ *
+ * Usage per evaluation:
+ * <pre>
+ * ev.reset(view, maxDepth);
+ * int me = ev.addSource(row, col);
+ * int player = ev.addSource(playerRow, playerCol);
+ * ev.block(row, col); // optional extra blocked cells (e.g. the tile just left)
+ * ev.run();
+ * ev.getTerritory(me) - ev.getTerritory(player);
+ * </pre>
+ *
+ * Bounded runs only ever touch cells within maxDepth steps of a source, so
+ * their buffers are sized to that window (cells are hashed into it) and stay
+ * small on a huge arena; unbounded runs, and windows about as big as the
+ * arena anyway, index the buffers by cell directly. All buffers are kept
+ * between runs and only grow, so evaluations don't allocate. One instance
+ * per thread.
+ */
+public class TerritoryEvaluator {
+    private static final int CONTESTED = -1;
+    private static final int MAX_BLOCKED = 4;
+
+    private ArenaView view;
+    private int rows, cols;
+    private int maxDepth;
+
+    // per slot, valid while stamp == generation; a slot is the cell itself
+    // when dense, else an open-addressing entry holding cellOf[slot]
+    private int[] stamp = new int[0];
+    private int[] cellOf = new int[0];
+    private int[] owner = new int[0];
+    private int[] depth = new int[0];
+    private int[] queue = new int[0]; // cells
+    private int generation;
+    private boolean dense;
+    private int mask, shift;
+
+    private int[] sources = new int[16];
+    private int[] territory = new int[16];
+    private int sourceCount;
+    private final int[] blocked = new int[MAX_BLOCKED];
+    private int blockedCount;
+    private int visited;
+
+    /**
+     * Start a new evaluation.
+     *
+     * @param maxDepth stop expanding after this many steps (0 = whole arena)
+     */
+    public void reset(ArenaView view, int maxDepth) {
+        this.view = view;
+        this.rows = view.getRows();
+        this.cols = view.getCols();
+        this.maxDepth = maxDepth;
+        sourceCount = 0;
+        blockedCount = 0;
+        visited = 0;
+    }
+
+    /** Adds an agent at (row, col); returns its index for {@link #getTerritory}. */
+    public int addSource(int row, int col) {
+        if (sourceCount == sources.length) {
+            sources = Arrays.copyOf(sources, sourceCount * 2);
+            territory = Arrays.copyOf(territory, sourceCount * 2);
+        }
+        boolean inside = row >= 0 && row < rows && col >= 0 && col < cols;
+        sources[sourceCount] = inside ? row * cols + col : -1;
+        return sourceCount++;
+    }
+
+    /** Treat (row, col) as blocked for this evaluation only. */
+    public void block(int row, int col) {
+        if (blockedCount < MAX_BLOCKED)
+            blocked[blockedCount++] = row * cols + col;
+    }
+
+    public void run() {
+        prepareSlots();
+        int head = 0, tail = 0;
+        for (int i = 0; i < sourceCount; i++) {
+            territory[i] = 0;
+            int cell = sources[i];
+            if (cell < 0)
+                continue;
+            int slot = slotOf(cell);
+            if (stamp[slot] == generation) {
+                owner[slot] = CONTESTED; // two agents on one cell
+                continue;
+            }
+            claim(slot, cell, i, 0);
+            queue[tail++] = cell;
+        }
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int slot = slotOf(cell);
+            int who = owner[slot];
+            if (who == CONTESTED)
+                continue;
+            int d = depth[slot] + 1;
+            if (maxDepth > 0 && d > maxDepth)
+                continue;
+            int r = cell / cols, c = cell - r * cols;
+            if (r > 0)
+                tail = visit(cell - cols, r - 1, c, who, d, tail);
+            if (r < rows - 1)
+                tail = visit(cell + cols, r + 1, c, who, d, tail);
+            if (c > 0)
+                tail = visit(cell - 1, r, c - 1, who, d, tail);
+            if (c < cols - 1)
+                tail = visit(cell + 1, r, c + 1, who, d, tail);
+        }
+        visited = tail;
+    }
+
+    /** Cells owned by the agent after {@link #run()} (sources themselves excluded). */
+    public int getTerritory(int source) {
+        return territory[source];
+    }
+
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    /** Cells touched by the last run (cost indicator). */
+    public int getVisited() {
+        return visited;
+    }
+
+    /**
+     * Convenience: territory of the player (index 0) and every published
+     * enemy (index i + 1) on the given view, written into out.
+     */
+    public int[] evaluateAll(ArenaView view, int maxDepth, int[] out) {
+        reset(view, maxDepth);
+        addSource(view.getPlayerRow(), view.getPlayerCol());
+        for (int i = 0; i < view.getEnemyCount(); i++)
+            addSource(view.getEnemyRow(i), view.getEnemyCol(i));
+        run();
+        if (out == null || out.length < sourceCount)
+            out = new int[sourceCount];
+        System.arraycopy(territory, 0, out, 0, sourceCount);
+        return out;
+    }
+
+    // Size the slots for this run and invalidate the previous one. Every cell
+    // reached lies within maxDepth steps of a source, so a bounded run never
+    // holds more than sourceCount diamonds of 2d(d + 1) + 1 cells; the hash
+    // table is kept at most half full.
+    private void prepareSlots() {
+        int size = rows * cols;
+        long window = maxDepth <= 0 ? size
+                : (long) Math.max(1, sourceCount) * (2L * maxDepth * (maxDepth + 1) + 1);
+        dense = 2 * window >= size;
+        int capacity = dense ? size : Integer.highestOneBit((int) (2 * window - 1)) << 1;
+        if (stamp.length < capacity) {
+            stamp = new int[capacity];
+            cellOf = new int[capacity];
+            owner = new int[capacity];
+            depth = new int[capacity];
+            queue = new int[capacity];
+            generation = 0;
+        }
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    // Slot of cell: the one holding it, or the free one it would take
+    private int slotOf(int cell) {
+        if (dense)
+            return cell;
+        int slot = (cell * 0x9E3779B9) >>> shift;
+        while (stamp[slot] == generation && cellOf[slot] != cell)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void claim(int slot, int cell, int who, int d) {
+        stamp[slot] = generation;
+        cellOf[slot] = cell;
+        owner[slot] = who;
+        depth[slot] = d;
+    }
+
+    // Claim (or contest) one neighbour; returns the new queue tail
+    private int visit(int next, int r, int c, int who, int d, int tail) {
+        int slot = slotOf(next);
+        if (stamp[slot] == generation) {
+            // same step from another agent: nobody gets it
+            int prev = owner[slot];
+            if (depth[slot] == d && prev != who && prev != CONTESTED) {
+                territory[prev]--;
+                owner[slot] = CONTESTED;
+            }
+            return tail;
+        }
+        if (!view.isEmpty(r, c) || (blockedCount > 0 && isBlocked(next)))
+            return tail;
+        claim(slot, next, who, d);
+        territory[who]++;
+        queue[tail] = next;
+        return tail + 1;
+    }
+
+    private boolean isBlocked(int cell) {
+        for (int i = 0; i < blockedCount; i++) {
+            if (blocked[i] == cell)
+                return true;
+        }
+        return false;
+    }
+}
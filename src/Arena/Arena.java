@@ -1,11 +1,23 @@
 package src.Arena;
 
 import src.Enemy.Position;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Arena implements ArenaView {
 
-    public static final int SIZE = 40;
+    public static final int DEFAULT_SIZE = 40;
+
+    /** Owner of jetwalls placed without one. */
+    public static final int NO_OWNER = -1;
+
+    /** Cell storage backend; BITBOARD is the default. */
+    public enum GridBackend {
+        ARRAY,
+        BITBOARD
+    }
 
     public enum ArenaType {
         CLASSICGRID,
@@ -14,7 +26,9 @@ public class Arena implements ArenaView {
         PROCEDURAL
     }
 
-    private final int[][] grid;
+    private final ArenaGrid grid;
+    private final int rows;
+    private final int cols;
     private final boolean openArena;
     private final ArenaType type;
     private final Long seed;
@@ -25,14 +39,51 @@ public class Arena implements ArenaView {
     private Position playerSpawn;
     private Position playerPosition;
 
+    // Change tracking (only mutations after generation are recorded)
+    private static final int CHANGE_LOG_CAPACITY = 8192;
+    private final ArenaChangeLog changeLog = new ArenaChangeLog(CHANGE_LOG_CAPACITY);
+    private final List<ArenaListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long version = 0;
+    private volatile long tick = 0;
+
+    // Jetwall ownership, allocated on the first placement: per cell the owner
+    // id + 1 (0 = none) and the placement tick; per owner its cells as
+    // (cell, tick) pairs in placement order. Owner lists are not pruned when a
+    // cell is cleared another way; entries whose cell no longer carries the
+    // same owner and tick are stale and skipped (and compacted away on growth).
+    private int[] jetwallOwner;
+    private int[] jetwallTick;
+    private int[][] ownedCells = new int[0][];
+    private int[] ownedSize = new int[0]; // ints used in ownedCells[owner]
+    private int[] ownedLive = new int[0]; // jetwalls the owner currently has
+
+    // Trail lifetime: jetwalls expire this many ticks after placement (null = permanent)
+    private JetwallWheel expiryWheel;
+
     public Arena(String name) {
         this(name, null);
     }
 
     public Arena(String name, Long seed) {
+        this(name, seed, DEFAULT_SIZE, DEFAULT_SIZE);
+    }
+
+    public Arena(String name, Long seed, GridBackend backend) {
+        this(name, seed, DEFAULT_SIZE, DEFAULT_SIZE, backend);
+    }
+
+    public Arena(String name, Long seed, int rows, int cols) {
+        this(name, seed, rows, cols, GridBackend.BITBOARD);
+    }
+
+    public Arena(String name, Long seed, int rows, int cols, GridBackend backend) {
+        if (rows < 3 || cols < 3)
+            throw new IllegalArgumentException("Arena must be at least 3x3, got " + rows + "x" + cols);
         this.name = name == null ? "Procedural" : name;
         this.seed = seed;
-        this.grid = new int[SIZE][SIZE];
+        this.rows = rows;
+        this.cols = cols;
+        this.grid = backend == GridBackend.ARRAY ? new ArrayGrid(rows, cols) : new BitboardGrid(rows, cols);
 
         // decide type
         this.type = decideType(this.name);
@@ -92,101 +143,98 @@ public class Arena implements ArenaView {
 
     private void generateClassicGrid() {
         // Outer boundary walls
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                grid[r][c] = (r == 0 || c == 0 || r == SIZE - 1 || c == SIZE - 1) ? 1 : 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                grid.set(r, c, (r == 0 || c == 0 || r == rows - 1 || c == cols - 1) ? 1 : 0);
             }
         }
 
         // Add a couple of interior walls to create corridors
-        for (int i = 5; i < SIZE - 5; i += 10) {
+        for (int i = 5; i < cols - 5; i += 10) {
             int r1 = 10;
-            int r2 = SIZE - 11; // 29 for SIZE=40
-            if (r1 >= 1 && r1 < SIZE - 1 && i >= 1 && i < SIZE - 1)
-                grid[r1][i] = 1;
-            if (r2 >= 1 && r2 < SIZE - 1 && i >= 1 && i < SIZE - 1)
-                grid[r2][i] = 1;
+            int r2 = rows - 11; // 29 for a 40-row arena
+            if (r1 >= 1 && r1 < rows - 1 && i >= 1 && i < cols - 1)
+                grid.set(r1, i, 1);
+            if (r2 >= 1 && r2 < rows - 1 && i >= 1 && i < cols - 1)
+                grid.set(r2, i, 1);
         }
     }
 
     private void generateNeonMaze() {
         // start fully walled
-        for (int r = 0; r < SIZE; r++)
-            for (int c = 0; c < SIZE; c++)
-                grid[r][c] = 1;
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                grid.set(r, c, 1);
 
         // carve horizontal corridors
-        for (int r = 3; r < SIZE - 3; r += 6) {
-            for (int c = 1; c < SIZE - 1; c++) {
-                grid[r][c] = 0;
-                if (r + 1 < SIZE - 1)
-                    grid[r + 1][c] = 0;
+        for (int r = 3; r < rows - 3; r += 6) {
+            for (int c = 1; c < cols - 1; c++) {
+                grid.set(r, c, 0);
+                if (r + 1 < rows - 1)
+                    grid.set(r + 1, c, 0);
             }
         }
 
         // carve vertical corridors
-        for (int c = 4; c < SIZE - 4; c += 8) {
-            for (int r = 1; r < SIZE - 1; r++) {
-                grid[r][c] = 0;
-                if (c + 1 < SIZE - 1)
-                    grid[r][c + 1] = 0;
+        for (int c = 4; c < cols - 4; c += 8) {
+            for (int r = 1; r < rows - 1; r++) {
+                grid.set(r, c, 0);
+                if (c + 1 < cols - 1)
+                    grid.set(r, c + 1, 0);
             }
         }
 
         // carve rooms in corners
         carveRoom(6, 6, 6, 6);
-        carveRoom(SIZE - 12, 6, 6, 6);
-        carveRoom(6, SIZE - 12, 6, 6);
-        carveRoom(SIZE - 12, SIZE - 12, 6, 6);
+        carveRoom(rows - 12, 6, 6, 6);
+        carveRoom(6, cols - 12, 6, 6);
+        carveRoom(rows - 12, cols - 12, 6, 6);
 
         // ensure borders are walls
-        for (int r = 0; r < SIZE; r++) {
-            grid[r][0] = 1;
-            grid[r][SIZE - 1] = 1;
-        }
-        for (int c = 0; c < SIZE; c++) {
-            grid[0][c] = 1;
-            grid[SIZE - 1][c] = 1;
-        }
+        drawBorder();
     }
 
     private void carveRoom(int sr, int sc, int h, int w) {
-        for (int r = Math.max(1, sr); r < Math.min(SIZE - 1, sr + h); r++)
-            for (int c = Math.max(1, sc); c < Math.min(SIZE - 1, sc + w); c++)
-                grid[r][c] = 0;
+        for (int r = Math.max(1, sr); r < Math.min(rows - 1, sr + h); r++)
+            for (int c = Math.max(1, sc); c < Math.min(cols - 1, sc + w); c++)
+                grid.set(r, c, 0);
     }
 
     private void generateOpenFrontier() {
         // mostly empty space (no interior walls)
-        for (int r = 0; r < SIZE; r++)
-            for (int c = 0; c < SIZE; c++)
-                grid[r][c] = 0;
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                grid.set(r, c, 0);
 
         // border walls to keep arena bounded
-        for (int r = 0; r < SIZE; r++) {
-            grid[r][0] = 1;
-            grid[r][SIZE - 1] = 1;
+        drawBorder();
+    }
+
+    private void drawBorder() {
+        for (int r = 0; r < rows; r++) {
+            grid.set(r, 0, 1);
+            grid.set(r, cols - 1, 1);
         }
-        for (int c = 0; c < SIZE; c++) {
-            grid[0][c] = 1;
-            grid[SIZE - 1][c] = 1;
+        for (int c = 0; c < cols; c++) {
+            grid.set(0, c, 1);
+            grid.set(rows - 1, c, 1);
         }
     }
 
     private void generateProcedural(Long seed) {
         Random rnd = (seed == null) ? new Random() : new Random(seed);
         // border walls + some random interior walls
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                boolean border = (r == 0 || c == 0 || r == SIZE - 1 || c == SIZE - 1);
-                grid[r][c] = border || rnd.nextDouble() < 0.12 ? 1 : 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                boolean border = (r == 0 || c == 0 || r == rows - 1 || c == cols - 1);
+                grid.set(r, c, border || rnd.nextDouble() < 0.12 ? 1 : 0);
             }
         }
 
         // keep a center corridor clear
-        int mid = SIZE / 2;
-        for (int c = 1; c < SIZE - 1; c++)
-            grid[mid][c] = 0;
+        int mid = rows / 2;
+        for (int c = 1; c < cols - 1; c++)
+            grid.set(mid, c, 0);
     }
 
     /* ================= SPAWN LOGIC ================= */
@@ -194,9 +242,9 @@ public class Arena implements ArenaView {
     protected Position determinePlayerSpawn() {
         // Non-procedural arenas: pick safe center area
         if (type != ArenaType.PROCEDURAL) {
-            for (int r = SIZE / 2 - 1; r <= SIZE / 2 + 1; r++) {
-                for (int c = SIZE / 2 - 1; c <= SIZE / 2 + 1; c++) {
-                    if (inBounds(r, c) && grid[r][c] == 0)
+            for (int r = rows / 2 - 1; r <= rows / 2 + 1; r++) {
+                for (int c = cols / 2 - 1; c <= cols / 2 + 1; c++) {
+                    if (inBounds(r, c) && grid.isEmpty(r, c))
                         return new Position(r, c);
                 }
             }
@@ -205,14 +253,14 @@ public class Arena implements ArenaView {
         // Procedural: try random empty tiles (seeded if provided)
         Random rnd = (seed == null) ? new Random() : new Random(seed);
         for (int attempt = 0; attempt < 1000; attempt++) {
-            int r = rnd.nextInt(SIZE);
-            int c = rnd.nextInt(SIZE);
-            if (grid[r][c] == 0)
+            int r = rnd.nextInt(rows);
+            int c = rnd.nextInt(cols);
+            if (grid.isEmpty(r, c))
                 return new Position(r, c);
         }
 
         // fallback center
-        return new Position(SIZE / 2, SIZE / 2);
+        return new Position(rows / 2, cols / 2);
     }
 
     public Position getPlayerSpawn() {
@@ -224,6 +272,16 @@ public class Arena implements ArenaView {
                 : new Position(playerSpawn.row, playerSpawn.col);
     }
 
+    @Override
+    public int getPlayerRow() {
+        return playerPosition != null ? playerPosition.row : playerSpawn.row;
+    }
+
+    @Override
+    public int getPlayerCol() {
+        return playerPosition != null ? playerPosition.col : playerSpawn.col;
+    }
+
     public String getDifficulty() {
         return difficulty;
     }
@@ -236,45 +294,270 @@ public class Arena implements ArenaView {
 
     public Position getRandomEmptyPosition(Random rnd) {
         for (int attempt = 0; attempt < 1000; attempt++) {
-            int r = rnd.nextInt(SIZE);
-            int c = rnd.nextInt(SIZE);
-            if (grid[r][c] == 0 && (playerSpawn == null || !(r == playerSpawn.row && c == playerSpawn.col)))
+            int r = rnd.nextInt(rows);
+            int c = rnd.nextInt(cols);
+            if (grid.isEmpty(r, c) && (playerSpawn == null || !(r == playerSpawn.row && c == playerSpawn.col)))
                 return new Position(r, c);
         }
-        return new Position(SIZE / 2, SIZE / 2);
+        return new Position(rows / 2, cols / 2);
     }
 
     /* ================= UTILS ================= */
 
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
     public boolean inBounds(int row, int col) {
-        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+        return row >= 0 && row < rows && col >= 0 && col < cols;
     }
 
     public boolean isWall(int row, int col) {
-        return inBounds(row, col) && grid[row][col] == 1;
+        return inBounds(row, col) && grid.isWall(row, col);
     }
 
     public boolean isEmpty(int row, int col) {
-        return inBounds(row, col) && grid[row][col] == 0;
+        return inBounds(row, col) && grid.isEmpty(row, col);
     }
 
     public boolean isJetwall(int row, int col) {
-        return inBounds(row, col) && grid[row][col] == 2;
+        return inBounds(row, col) && grid.isJetwall(row, col);
     }
 
-    public void placeJetwall(int row, int col) {
-        if (inBounds(row, col) && grid[row][col] == 0) {
-            grid[row][col] = 2;
+    /** Turns an empty cell into an unowned jetwall; returns false if nothing changed. */
+    public boolean placeJetwall(int row, int col) {
+        return placeJetwall(row, col, NO_OWNER);
+    }
+
+    /**
+     * Turns an empty cell into a jetwall laid by owner (a small id >= 0 the
+     * caller assigns, or NO_OWNER), stamped with the current tick; returns
+     * false if nothing changed.
+     */
+    public boolean placeJetwall(int row, int col, int owner) {
+        if (!inBounds(row, col) || !grid.isEmpty(row, col))
+            return false;
+        setCell(row, col, ArenaGrid.JETWALL);
+        if (owner != NO_OWNER || expiryWheel != null) {
+            if (jetwallOwner == null) {
+                jetwallOwner = new int[rows * cols];
+                jetwallTick = new int[rows * cols];
+            }
+            int cell = row * cols + col;
+            jetwallOwner[cell] = owner + 1;
+            jetwallTick[cell] = (int) tick;
+            if (owner != NO_OWNER)
+                addOwnedCell(owner, cell, (int) tick);
+            if (expiryWheel != null)
+                expiryWheel.schedule(cell, (int) tick);
         }
+        return true;
+    }
+
+    /**
+     * Makes every jetwall placed from now on expire the given number of ticks
+     * after placement (0 = permanent, the default). Set it before the round
+     * starts; expiry happens in {@link #expireJetwalls}.
+     */
+    public void setJetwallLifetime(int ticks) {
+        if (ticks < 0)
+            throw new IllegalArgumentException("Jetwall lifetime must be >= 0: " + ticks);
+        if (version != 0)
+            throw new IllegalStateException("Jetwall lifetime must be set before the arena changes");
+        expiryWheel = ticks == 0 ? null : new JetwallWheel(ticks, this::expireJetwall);
+    }
+
+    /** Ticks a jetwall lasts, or 0 if jetwalls are permanent. */
+    public int getJetwallLifetime() {
+        return expiryWheel == null ? 0 : expiryWheel.getLifetime();
+    }
+
+    /**
+     * Clears the jetwalls whose lifetime ends on the current tick; the
+     * simulation calls it once per tick after {@link #setTick}. Only the walls
+     * due now are visited, and each one goes through the change log, so the
+     * renderer and distance fields pick it up like any other change.
+     */
+    public void expireJetwalls() {
+        if (expiryWheel != null)
+            expiryWheel.advance((int) tick);
+    }
+
+    // Wheel callback: skip walls already cleared (or replaced) since they were scheduled
+    private void expireJetwall(int cell, int placedTick) {
+        if (grid.isJetwall(cell / cols, cell % cols) && jetwallTick[cell] == placedTick)
+            clearJetwall(cell);
+    }
+
+    /** Owner id of the jetwall at (row, col), or NO_OWNER (unowned, or not a jetwall). */
+    public int getJetwallOwner(int row, int col) {
+        if (jetwallOwner == null || !inBounds(row, col))
+            return NO_OWNER;
+        return jetwallOwner[row * cols + col] - 1;
+    }
+
+    /** Tick the jetwall at (row, col) was placed on, or -1 (not a jetwall, or unowned and permanent). */
+    public long getJetwallTick(int row, int col) {
+        if (jetwallOwner == null || !isJetwall(row, col)
+                || (jetwallOwner[row * cols + col] == 0 && expiryWheel == null))
+            return -1;
+        return jetwallTick[row * cols + col];
+    }
+
+    /** Number of jetwalls the owner currently has on the grid. */
+    public int getJetwallCount(int owner) {
+        return owner >= 0 && owner < ownedLive.length ? ownedLive[owner] : 0;
+    }
+
+    /**
+     * Removes every jetwall of the owner (e.g. a derezzed cycle's trail) in
+     * time proportional to the walls it laid, not to the grid. Each cell goes
+     * through the change log like any other mutation. Returns the number of
+     * cells cleared.
+     */
+    public int clearJetwalls(int owner) {
+        if (owner < 0 || owner >= ownedCells.length)
+            return 0;
+        int[] list = ownedCells[owner];
+        int n = ownedSize[owner], cleared = 0;
+        for (int i = 0; i < n; i += 2) {
+            int cell = list[i];
+            if (jetwallOwner[cell] == owner + 1 && jetwallTick[cell] == list[i + 1]) {
+                clearJetwall(cell);
+                cleared++;
+            }
+        }
+        ownedSize[owner] = 0;
+        return cleared;
+    }
+
+    // Back to EMPTY, dropping the ownership stamp
+    private void clearJetwall(int cell) {
+        int owner = jetwallOwner[cell] - 1;
+        if (owner >= 0)
+            ownedLive[owner]--;
+        jetwallOwner[cell] = 0;
+        setCell(cell / cols, cell % cols, ArenaGrid.EMPTY);
+    }
+
+    private void addOwnedCell(int owner, int cell, int placedTick) {
+        if (owner >= ownedCells.length) {
+            int n = Math.max(owner + 1, ownedCells.length * 2);
+            ownedCells = Arrays.copyOf(ownedCells, n);
+            ownedSize = Arrays.copyOf(ownedSize, n);
+            ownedLive = Arrays.copyOf(ownedLive, n);
+        }
+        int[] list = ownedCells[owner];
+        int size = ownedSize[owner];
+        if (list == null) {
+            list = ownedCells[owner] = new int[16];
+        } else if (size == list.length) {
+            size = compactOwnedCells(owner); // drop stale entries before growing
+            if (size > list.length / 2)
+                list = ownedCells[owner] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[size] = cell;
+        list[size + 1] = placedTick;
+        ownedSize[owner] = size + 2;
+        ownedLive[owner]++;
+    }
+
+    private int compactOwnedCells(int owner) {
+        int[] list = ownedCells[owner];
+        int n = ownedSize[owner], kept = 0;
+        for (int i = 0; i < n; i += 2) {
+            int cell = list[i];
+            if (jetwallOwner[cell] == owner + 1 && jetwallTick[cell] == list[i + 1]) {
+                list[kept] = cell;
+                list[kept + 1] = list[i + 1];
+                kept += 2;
+            }
+        }
+        ownedSize[owner] = kept;
+        return kept;
+    }
+
+    // Single write path for post-generation mutations: bumps the version,
+    // records the change and notifies listeners.
+    private void setCell(int row, int col, int code) {
+        int old = grid.get(row, col);
+        if (old == code)
+            return;
+        grid.set(row, col, code);
+        version = changeLog.record(row * cols + col, tick);
+        for (ArenaListener l : listeners)
+            l.onCellChanged(row, col, old, code, tick);
+    }
+
+    /* ================= CHANGE TRACKING ================= */
+
+    public void addListener(ArenaListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ArenaListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Tick stamped on subsequent changes; the simulation sets it every tick. */
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    @Override
+    public long getTick() {
+        return tick;
+    }
+
+    /** Grid version: number of cell changes since generation. */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isDirtySince(long sinceVersion) {
+        return version != sinceVersion;
+    }
+
+    /**
+     * Cells (packed row * getCols() + col) changed in versions
+     * (sinceVersion, upToVersion], oldest first, copied into cellsOut.
+     * Returns the count, or -1 if the change log no longer reaches back that far
+     * or cellsOut is too small - the caller should then rescan the grid.
+     */
+    public int getChangesSince(long sinceVersion, long upToVersion, int[] cellsOut) {
+        return changeLog.copy(sinceVersion, upToVersion, cellsOut);
+    }
+
+    /** Tick on which the given version was produced, or -1 if no longer logged. */
+    public long getChangeTick(long version) {
+        return changeLog.tickOf(version);
     }
 
     public int[][] getGridCopy() {
-        int[][] copy = new int[SIZE][SIZE];
-        for (int r = 0; r < SIZE; r++)
-            System.arraycopy(grid[r], 0, copy[r], 0, SIZE);
+        int[][] copy = new int[rows][cols];
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                copy[r][c] = grid.get(r, c);
         return copy;
     }
 
+    /**
+     * Direct read access to the cell storage for bulk queries (row masks,
+     * popcounts). Mutate the arena through placeJetwall, not through this.
+     */
+    public ArenaGrid getGrid() {
+        return grid;
+    }
+
+    /** Number of EMPTY cells left in the arena. */
+    public int countFreeCells() {
+        return grid.countFree();
+    }
+
     /** returns machine-friendly type name */
     public String getTypeName() {
         return type.name();
@@ -288,4 +571,9 @@ public class Arena implements ArenaView {
     public String getName() {
         return name;
     }
+
+    /** Generation seed, or null if the layout was not seeded. */
+    public Long getSeed() {
+        return seed;
+    }
 }
@@ -0,0 +1,55 @@
+package src.Arena;
+
+/**
+ * Fixed-size ring of the most recent cell changes, one entry per arena
+ * version. Lets consumers that only look occasionally (renderer, AI caches)
+ * ask "what changed since version N" instead of rescanning the grid. When a
+ * consumer falls further behind than the ring holds it is told to rescan.
+ *
+ * Writes come from the game thread, reads may come from any thread.
+ */
+class ArenaChangeLog {
+    private final int[] cells; // packed row * cols + col
+    private final long[] ticks;
+    private final int mask;
+    private long version = 0; // number of changes recorded so far
+
+    ArenaChangeLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        cells = new int[size];
+        ticks = new long[size];
+        mask = size - 1;
+    }
+
+    synchronized long record(int cell, long tick) {
+        int slot = (int) (version & mask);
+        cells[slot] = cell;
+        ticks[slot] = tick;
+        return ++version;
+    }
+
+    /**
+     * Copies cells changed in versions (sinceVersion, upToVersion] into out,
+     * oldest first. Returns the count, or -1 if that range is no longer (or not
+     * yet) in the log or does not fit in out.
+     */
+    synchronized int copy(long sinceVersion, long upToVersion, int[] out) {
+        if (sinceVersion < 0 || upToVersion > version || sinceVersion > upToVersion)
+            return -1;
+        if (version - sinceVersion > cells.length)
+            return -1;
+        long count = upToVersion - sinceVersion;
+        if (count > out.length)
+            return -1;
+        for (int i = 0; i < count; i++)
+            out[i] = cells[(int) ((sinceVersion + i) & mask)];
+        return (int) count;
+    }
+
+    /** Tick of the change that produced {@code version}, or -1 if no longer logged. */
+    synchronized long tickOf(long version) {
+        if (version <= 0 || version > this.version || this.version - version >= cells.length)
+            return -1;
+        return ticks[(int) ((version - 1) & mask)];
+    }
+}
@@ -0,0 +1,35 @@
+package src.Arena;
+
+/**
+ * Cell storage behind {@link Arena}. Cells hold one of the codes below.
+ * Coordinates passed in are assumed to be in bounds; Arena does the bounds
+ * checks before delegating.
+ */
+public interface ArenaGrid {
+    int EMPTY = 0;
+    int WALL = 1;
+    int JETWALL = 2;
+
+    int rows();
+
+    int cols();
+
+    int get(int row, int col);
+
+    void set(int row, int col, int code);
+
+    boolean isWall(int row, int col);
+
+    boolean isJetwall(int row, int col);
+
+    boolean isEmpty(int row, int col);
+
+    /** Number of EMPTY cells in the whole grid. */
+    int countFree();
+
+    /** Number of EMPTY cells in one row. */
+    int countFreeInRow(int row);
+
+    /** Independent deep copy (same backend). */
+    ArenaGrid copy();
+}
@@ -0,0 +1,15 @@
+package src.Arena;
+
+/**
+ * Observer for grid mutations made after the arena was generated.
+ * Called synchronously on the thread that mutated the arena (the game thread),
+ * so implementations should be cheap and must not mutate the arena.
+ */
+public interface ArenaListener {
+    /**
+     * @param oldCode previous ArenaGrid code of the cell
+     * @param newCode new ArenaGrid code of the cell
+     * @param tick    simulation tick the change happened on (see Arena.setTick)
+     */
+    void onCellChanged(int row, int col, int oldCode, int newCode, long tick);
+}
@@ -0,0 +1,117 @@
+package src.Arena;
+
+import src.Enemy.Position;
+
+/**
+ * Frozen copy of an {@link Arena} for the enemy decision phase.
+ *
+ * Enemies decide in parallel against the same snapshot while the live arena
+ * is left alone, so every enemy sees the board as it was at the start of the
+ * step regardless of list order. {@link #capture} refreshes the copy from the
+ * arena's change log (a few cells per step) and only copies the whole grid on
+ * the first capture or when the log no longer reaches back far enough.
+ *
+ * Between two captures the snapshot never changes and is safe to read from
+ * any number of threads; capture itself must not overlap with readers.
+ */
+public class ArenaSnapshot implements ArenaView {
+    private static final int CHANGE_BUFFER = 1024;
+
+    private Arena source;
+    private ArenaGrid cells;
+    private long version = -1;
+    private final int[] changed = new int[CHANGE_BUFFER];
+
+    private int rows, cols;
+    private int playerRow, playerCol;
+    private long tick;
+
+    private long fullCopies;
+
+    /** Copy the arena's current cells, player and tick. */
+    public void capture(Arena arena) {
+        long current = arena.getVersion();
+        if (arena != source || cells == null) {
+            copyAll(arena, current);
+        } else if (current != version) {
+            int n = arena.getChangesSince(version, current, changed);
+            if (n < 0) {
+                copyAll(arena, current);
+            } else {
+                ArenaGrid live = arena.getGrid();
+                for (int i = 0; i < n; i++) {
+                    int r = changed[i] / cols, c = changed[i] % cols;
+                    cells.set(r, c, live.get(r, c));
+                }
+                version = current;
+            }
+        }
+
+        playerRow = arena.getPlayerRow();
+        playerCol = arena.getPlayerCol();
+        tick = arena.getTick();
+    }
+
+    private void copyAll(Arena arena, long current) {
+        source = arena;
+        cells = arena.getGrid().copy();
+        rows = arena.getRows();
+        cols = arena.getCols();
+        version = current;
+        fullCopies++;
+    }
+
+    /** Whole-grid copies so far (first capture plus change-log overflows). */
+    public long getFullCopies() {
+        return fullCopies;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public boolean isWall(int row, int col) {
+        return inBounds(row, col) && cells.isWall(row, col);
+    }
+
+    @Override
+    public boolean isJetwall(int row, int col) {
+        return inBounds(row, col) && cells.isJetwall(row, col);
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return inBounds(row, col) && cells.isEmpty(row, col);
+    }
+
+    @Override
+    public Position getPlayerPosition() {
+        return new Position(playerRow, playerCol);
+    }
+
+    @Override
+    public int getPlayerRow() {
+        return playerRow;
+    }
+
+    @Override
+    public int getPlayerCol() {
+        return playerCol;
+    }
+
+    @Override
+    public long getTick() {
+        return tick;
+    }
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+}
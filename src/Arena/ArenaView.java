@@ -3,6 +3,10 @@ package src.Arena;
 import src.Enemy.Position;
 
 public interface ArenaView {
+    int getRows();
+
+    int getCols();
+
     boolean isWall(int row, int col);
 
     boolean isJetwall(int row, int col);
@@ -10,4 +14,40 @@ public interface ArenaView {
     boolean isEmpty(int row, int col);
 
     Position getPlayerPosition();
+
+    /** Player row without allocating a Position (AI hot path). */
+    default int getPlayerRow() {
+        return getPlayerPosition().row;
+    }
+
+    default int getPlayerCol() {
+        return getPlayerPosition().col;
+    }
+
+    /**
+     * Shortest path length (moves through EMPTY cells) from the player to
+     * (row, col), or -1 if unknown / unreachable. Views without a distance
+     * field return -1 and callers fall back to straight-line heuristics.
+     */
+    default int distanceToPlayer(int row, int col) {
+        return -1;
+    }
+
+    /** Simulation tick this view reflects, or -1 if unknown. */
+    default long getTick() {
+        return -1;
+    }
+
+    /** Number of living enemies whose cells are published to the AI. */
+    default int getEnemyCount() {
+        return 0;
+    }
+
+    default int getEnemyRow(int index) {
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    default int getEnemyCol(int index) {
+        throw new IndexOutOfBoundsException(index);
+    }
 }
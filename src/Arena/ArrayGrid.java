@@ -0,0 +1,70 @@
+package src.Arena;
+
+/**
+ * Original storage: one int code per cell in an int[rows][cols].
+ */
+public class ArrayGrid implements ArenaGrid {
+    private final int[][] cells;
+    private final int rows;
+    private final int cols;
+
+    public ArrayGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new int[rows][cols];
+    }
+
+    private ArrayGrid(ArrayGrid other) {
+        this(other.rows, other.cols);
+        for (int r = 0; r < rows; r++)
+            System.arraycopy(other.cells[r], 0, cells[r], 0, cols);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int get(int row, int col) {
+        return cells[row][col];
+    }
+
+    public void set(int row, int col, int code) {
+        cells[row][col] = code;
+    }
+
+    public boolean isWall(int row, int col) {
+        return cells[row][col] == WALL;
+    }
+
+    public boolean isJetwall(int row, int col) {
+        return cells[row][col] == JETWALL;
+    }
+
+    public boolean isEmpty(int row, int col) {
+        return cells[row][col] == EMPTY;
+    }
+
+    public int countFree() {
+        int count = 0;
+        for (int r = 0; r < rows; r++)
+            count += countFreeInRow(r);
+        return count;
+    }
+
+    public int countFreeInRow(int row) {
+        int count = 0;
+        for (int c = 0; c < cols; c++) {
+            if (cells[row][c] == EMPTY)
+                count++;
+        }
+        return count;
+    }
+
+    public ArenaGrid copy() {
+        return new ArrayGrid(this);
+    }
+}
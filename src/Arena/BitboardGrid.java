@@ -0,0 +1,164 @@
+package src.Arena;
+
+import src.Enemy.Direction;
+
+/**
+ * Packed storage: walls and jetwalls live in two separate bitsets, one bit
+ * per cell, each row padded to a whole number of 64-bit words.
+ *
+ * Cell (row, col) is bit (col & 63) of word row * wordsPerRow + (col >>> 6).
+ * Besides the per-cell predicates this exposes whole-row masks so callers can
+ * work a word (64 cells) at a time: free-cell popcounts, row masks and
+ * neighbour masks shifted by one cell in any direction.
+ */
+public class BitboardGrid implements ArenaGrid {
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long lastWordMask; // valid bits in the last word of each row
+
+    private final long[] walls;
+    private final long[] jetwalls;
+
+    public BitboardGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        int tail = cols & 63;
+        this.lastWordMask = tail == 0 ? -1L : (1L << tail) - 1;
+        this.walls = new long[rows * wordsPerRow];
+        this.jetwalls = new long[rows * wordsPerRow];
+    }
+
+    private BitboardGrid(BitboardGrid other) {
+        this(other.rows, other.cols);
+        System.arraycopy(other.walls, 0, walls, 0, walls.length);
+        System.arraycopy(other.jetwalls, 0, jetwalls, 0, jetwalls.length);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public int get(int row, int col) {
+        int i = row * wordsPerRow + (col >>> 6);
+        long bit = 1L << col;
+        if ((walls[i] & bit) != 0)
+            return WALL;
+        if ((jetwalls[i] & bit) != 0)
+            return JETWALL;
+        return EMPTY;
+    }
+
+    public void set(int row, int col, int code) {
+        int i = row * wordsPerRow + (col >>> 6);
+        long bit = 1L << col;
+        walls[i] &= ~bit;
+        jetwalls[i] &= ~bit;
+        if (code == WALL)
+            walls[i] |= bit;
+        else if (code == JETWALL)
+            jetwalls[i] |= bit;
+    }
+
+    public boolean isWall(int row, int col) {
+        return (walls[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public boolean isJetwall(int row, int col) {
+        return (jetwalls[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public boolean isEmpty(int row, int col) {
+        int i = row * wordsPerRow + (col >>> 6);
+        return ((walls[i] | jetwalls[i]) & (1L << col)) == 0;
+    }
+
+    public int countFree() {
+        int count = 0;
+        for (int r = 0; r < rows; r++)
+            count += countFreeInRow(r);
+        return count;
+    }
+
+    public int countFreeInRow(int row) {
+        int base = row * wordsPerRow;
+        int count = 0;
+        for (int w = 0; w < wordsPerRow; w++)
+            count += Long.bitCount(freeWord(base, w));
+        return count;
+    }
+
+    public ArenaGrid copy() {
+        return new BitboardGrid(this);
+    }
+
+    /* ================= ROW MASKS ================= */
+
+    /**
+     * Writes the mask of cells in {@code row} holding {@code code} into
+     * out[0..wordsPerRow).
+     */
+    public void rowMask(int row, int code, long[] out) {
+        int base = row * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long m = switch (code) {
+                case WALL -> walls[base + w];
+                case JETWALL -> jetwalls[base + w];
+                default -> freeWord(base, w);
+            };
+            out[w] = m;
+        }
+    }
+
+    /**
+     * Writes a mask where bit c is set iff the neighbour of (row, c) in
+     * {@code dir} is inside the grid and EMPTY.
+     */
+    public void neighbourFreeMask(int row, Direction dir, long[] out) {
+        switch (dir) {
+            case UP, DOWN -> {
+                int nr = dir == Direction.UP ? row - 1 : row + 1;
+                if (nr < 0 || nr >= rows) {
+                    for (int w = 0; w < wordsPerRow; w++)
+                        out[w] = 0L;
+                } else {
+                    rowMask(nr, EMPTY, out);
+                }
+            }
+            case LEFT -> {
+                // bit c <- bit c-1
+                int base = row * wordsPerRow;
+                long carry = 0L;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    long free = freeWord(base, w);
+                    out[w] = (free << 1) | carry;
+                    carry = free >>> 63;
+                }
+                out[wordsPerRow - 1] &= lastWordMask;
+            }
+            case RIGHT -> {
+                // bit c <- bit c+1
+                int base = row * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    long next = w + 1 < wordsPerRow ? freeWord(base, w + 1) : 0L;
+                    out[w] = (freeWord(base, w) >>> 1) | (next << 63);
+                }
+                out[wordsPerRow - 1] &= lastWordMask;
+            }
+        }
+    }
+
+    private long freeWord(int base, int w) {
+        long m = ~(walls[base + w] | jetwalls[base + w]);
+        return w == wordsPerRow - 1 ? m & lastWordMask : m;
+    }
+}
@@ -0,0 +1,75 @@
+package src.Arena;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of jetwall expiries.
+ *
+ * A jetwall placed on tick t expires on tick t + lifetime; it is filed in
+ * slot (t + lifetime) mod slots as a (cell, placement tick) pair, so expiring
+ * one tick only looks at the walls due in that slot instead of scanning the
+ * grid. The wheel has enough slots to cover the lifetime (up to MAX_SLOTS);
+ * longer lifetimes wrap around and entries wait for their round.
+ *
+ * Entries are not removed when a wall disappears another way; the arena
+ * checks that the cell still holds the wall placed on that tick.
+ */
+class JetwallWheel {
+    private static final int MAX_SLOTS = 4096;
+
+    interface Expiry {
+        void expire(int cell, int placedTick);
+    }
+
+    private final int lifetime;
+    private final Expiry expiry;
+    private final int mask;
+    private final int[][] slots;
+    private final int[] sizes; // ints used per slot (2 per entry)
+
+    JetwallWheel(int lifetime, Expiry expiry) {
+        this.lifetime = lifetime;
+        this.expiry = expiry;
+        int n = Integer.highestOneBit(Math.min(MAX_SLOTS, lifetime + 1));
+        if (n < lifetime + 1 && n < MAX_SLOTS)
+            n <<= 1;
+        mask = n - 1;
+        slots = new int[n][];
+        sizes = new int[n];
+    }
+
+    int getLifetime() {
+        return lifetime;
+    }
+
+    void schedule(int cell, int placedTick) {
+        int slot = (placedTick + lifetime) & mask;
+        int[] list = slots[slot];
+        int size = sizes[slot];
+        if (list == null)
+            list = slots[slot] = new int[8];
+        else if (size == list.length)
+            list = slots[slot] = Arrays.copyOf(list, size * 2);
+        list[size] = cell;
+        list[size + 1] = placedTick;
+        sizes[slot] = size + 2;
+    }
+
+    /** Expires every wall due on the given tick; call once per tick. */
+    void advance(int tick) {
+        int slot = tick & mask;
+        int[] list = slots[slot];
+        int size = sizes[slot], kept = 0;
+        for (int i = 0; i < size; i += 2) {
+            int cell = list[i], placed = list[i + 1];
+            if (placed + lifetime <= tick) {
+                expiry.expire(cell, placed);
+            } else { // a later round of the wheel
+                list[kept] = cell;
+                list[kept + 1] = placed;
+                kept += 2;
+            }
+        }
+        sizes[slot] = kept;
+    }
+}
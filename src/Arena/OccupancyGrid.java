@@ -0,0 +1,146 @@
+package src.Arena;
+
+import java.util.Arrays;
+import src.Enemy.Enemy;
+import src.Enemy.Position;
+
+/**
+ * Which cycles are on which cell, kept up to date as they move.
+ *
+ * Each cell holds the head of a chain of enemy ids (the ids the simulation
+ * assigns, which follow the enemy list order) linked through a per-id next
+ * array, in ascending id order. Cycles are one per cell in practice, so
+ * "who is on (row, col)" and a move are O(1) instead of a scan over every
+ * enemy. The player has a single cell of its own.
+ *
+ * An enemy stays on the grid until the owner removes it, dead or alive;
+ * callers that care check isAlive.
+ */
+public class OccupancyGrid {
+    public static final int NONE = -1;
+
+    /** Entity id of the player; enemies have ids above it. */
+    public static final int PLAYER = 0;
+
+    private final int rows, cols;
+    private final int[] head; // per cell: lowest enemy id there, NONE if none
+    private int[] next = new int[16]; // per id: next id on the same cell
+    private int[] cellOf = new int[16]; // per id: packed cell, NONE if not on the grid
+    private Enemy[] byId = new Enemy[16];
+    private int playerCell = NONE;
+
+    public OccupancyGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        head = new int[rows * cols];
+        Arrays.fill(head, NONE);
+        Arrays.fill(cellOf, NONE);
+    }
+
+    /* ================= ENEMIES ================= */
+
+    /** Adds the enemy on its current cell, or moves it there; its id must be >= 0. */
+    public void place(Enemy e) {
+        int id = e.getId();
+        if (id >= cellOf.length)
+            grow(id + 1);
+        Position p = e.getPosition();
+        int cell = inBounds(p.row, p.col) ? p.row * cols + p.col : NONE;
+        if (cellOf[id] == cell && byId[id] == e)
+            return;
+        unlink(id);
+        byId[id] = e;
+        cellOf[id] = cell;
+        if (cell != NONE)
+            link(id, cell);
+    }
+
+    public void remove(Enemy e) {
+        int id = e.getId();
+        if (id < 0 || id >= byId.length || byId[id] != e)
+            return;
+        unlink(id);
+        cellOf[id] = NONE;
+        byId[id] = null;
+    }
+
+    /** Lowest id on the cell, or NONE; continue with {@link #nextOnCell}. */
+    public int firstOnCell(int row, int col) {
+        return inBounds(row, col) ? head[row * cols + col] : NONE;
+    }
+
+    /** The next id on the same cell as id, or NONE. */
+    public int nextOnCell(int id) {
+        return next[id];
+    }
+
+    public Enemy getEnemy(int id) {
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /** First enemy on the cell in id order, skipping the one with exceptId, or null. */
+    public Enemy enemyAt(int row, int col, int exceptId) {
+        for (int id = firstOnCell(row, col); id != NONE; id = next[id]) {
+            if (id != exceptId)
+                return byId[id];
+        }
+        return null;
+    }
+
+    /* ================= PLAYER ================= */
+
+    public void setPlayer(int row, int col) {
+        playerCell = inBounds(row, col) ? row * cols + col : NONE;
+    }
+
+    public boolean isPlayerAt(int row, int col) {
+        return playerCell != NONE && inBounds(row, col) && playerCell == row * cols + col;
+    }
+
+    /* ================= CHAINS ================= */
+
+    // Insert keeping the chain in ascending id order (chains are a cycle or two long)
+    private void link(int id, int cell) {
+        int prev = NONE, cur = head[cell];
+        while (cur != NONE && cur < id) {
+            prev = cur;
+            cur = next[cur];
+        }
+        next[id] = cur;
+        if (prev == NONE)
+            head[cell] = id;
+        else
+            next[prev] = id;
+    }
+
+    private void unlink(int id) {
+        int cell = cellOf[id];
+        if (cell == NONE)
+            return;
+        int prev = NONE, cur = head[cell];
+        while (cur != NONE && cur != id) {
+            prev = cur;
+            cur = next[cur];
+        }
+        if (cur == NONE)
+            return;
+        if (prev == NONE)
+            head[cell] = next[id];
+        else
+            next[prev] = next[id];
+        next[id] = NONE;
+    }
+
+    private void grow(int size) {
+        int n = Math.max(size, cellOf.length * 2);
+        int old = cellOf.length;
+        next = Arrays.copyOf(next, n);
+        cellOf = Arrays.copyOf(cellOf, n);
+        byId = Arrays.copyOf(byId, n);
+        Arrays.fill(cellOf, old, n, NONE);
+    }
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+}
@@ -88,6 +88,10 @@ public abstract class Characters extends Entity {
         discs_owned = Math.min(this.disc_slot, discs_owned + value);
     } // change
 
+    public void setDiscSlot(int slots) {
+        this.disc_slot = slots;
+    }
+
     public void setLevel(int newLevel) {
         this.level = newLevel;
     }
@@ -109,10 +113,7 @@ public abstract class Characters extends Entity {
 
         canUpdateLives = false;
 
-        lives += value;
-        if (lives <= 0) {
-            alive = false;
-        }
+        changeLives(value);
 
         if (lifeCooldownTimer != null && lifeCooldownTimer.isRunning()) {
             lifeCooldownTimer.stop();
@@ -125,6 +126,15 @@ public abstract class Characters extends Entity {
         return true;
     }
 
+    // changes lives without the wall-clock cooldown; the simulation keeps its
+    // own cooldown in ticks so matches replay identically at any speed
+    public void changeLives(double value) {
+        lives += value;
+        if (lives <= 0) {
+            alive = false;
+        }
+    }
+
     // stat increase method (note that stats increase differ for each character.
     // this method is overridden in Tron.java and Kevin.java respectively)
     protected abstract void applyStatIncrease();
@@ -308,7 +318,7 @@ public abstract class Characters extends Entity {
             level++; // increment level
             // level-up side effects:
             if (level % 10 == 0) {
-                updateLives(1.0);
+                changeLives(1.0);
             }
             if (level % 15 == 0) {
                 disc_slot += 1;
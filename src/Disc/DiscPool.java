@@ -0,0 +1,559 @@
+package src.Disc;
+
+import java.util.Arrays;
+import src.Arena.Arena;
+import src.Arena.OccupancyGrid;
+import src.Enemy.Direction;
+import src.Enemy.Enemy;
+
+/**
+ * Every disc of a round, stored struct-of-arrays in recycled slots.
+ *
+ * A disc is a slot index into primitive arrays (cell, sub-tile position,
+ * direction, range, owner id, flags, glow timer); throwing one takes a free
+ * slot and releasing it puts the slot back, so discs cost no allocation once
+ * the arrays have grown to the round's peak. {@link #update} steps the discs
+ * in throw order in one loop over the live slots. {@link Disc} objects are
+ * views of a slot for code that wants the old per-disc API.
+ *
+ * Owner ids are the simulation's entity ids ({@link OccupancyGrid#PLAYER} for
+ * the player's discs). Game thread only.
+ *
+ * Ricochet discs (thrown while {@link #setBounces} is above 0) bounce off
+ * walls and jetwalls instead of stopping. Their whole path, bounces included,
+ * is planned against the grid on their first step and then just followed;
+ * cells on a path are reference-counted per cell, and the arena's change log
+ * is read once per update to re-plan only the discs whose remaining path a
+ * changed cell lies on.
+ */
+public class DiscPool {
+    public static final double MOVE_SPEED = 1.0 / 8.0; // Move one tile over 8 ticks (default speed)
+    public static final int DEFAULT_RANGE = 3;
+    public static final int RICOCHET_RANGE = 12; // tiles, bounces included
+    static final int COLLISION_GLOW_DURATION = 20; // Glow for 20 ticks (~0.33s at 60 ticks/s)
+
+    // Flags
+    static final byte ACTIVE = 1; // moving
+    static final byte HIT_ENEMY = 2; // consumed by an enemy
+    static final byte COLLECTED = 4; // reclaimed by the player
+    static final byte RELEASED = 8; // slot is free (or about to be, until the next compact)
+    static final byte RICOCHET = 16; // follows a planned bounce path
+    static final byte PATH_STALE = 32; // path must be (re)planned before the next move
+    static final byte PATH_END_WALL = 64; // path ends inside a wall (else out of range)
+
+    private static final int CHANGE_BUFFER = 1024;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Per slot
+    int[] row = new int[16], col = new int[16];
+    double[] smoothRow = new double[16], smoothCol = new double[16];
+    double[] speed = new double[16]; // tiles per tick
+    byte[] direction = new byte[16];
+    int[] range = new int[16], travelled = new int[16];
+    int[] owner = new int[16];
+    byte[] flags = new byte[16];
+    int[] glowTimer = new int[16], glowRow = new int[16], glowCol = new int[16];
+    int[] bounces = new int[16]; // bounces left
+    private Disc[] views = new Disc[16];
+
+    // Ricochet paths, per slot: entry k is the cell the disc is on for its
+    // k-th tile of travel and the direction it moves in there (cell << 2 |
+    // direction ordinal), entry 0 being where it was planned from. A bounce
+    // repeats the cell with the direction reversed; the wall it bounced off is
+    // the next cell in the old direction.
+    private int[][] path = new int[16][];
+    private int[] pathLength = new int[16];
+    private int[] pathIndex = new int[16]; // entry the disc is on
+    private double[] pathPos = new double[16]; // tiles travelled along the path
+    private long[] pathVersion = new long[16]; // arena version it was planned at
+    private int[] pathRefs; // per cell: path entries (and bounce walls) on it
+    private int rows, cols;
+    private long seenVersion = -1; // arena version invalidation has caught up to
+    private final int[] changes = new int[CHANGE_BUFFER];
+
+    private int[] order = new int[16]; // live slots in throw order
+    private int size;
+    private int[] free = new int[16]; // released slots, reused last-in first-out
+    private int freeCount;
+    private int slotCount; // slots ever handed out
+
+    private OccupancyGrid occupancy; // from the last update, to resolve owners
+    private int playerHits; // enemy discs that hit the player in the last update
+    private double throwSpeed = MOVE_SPEED;
+    private int throwBounces;
+
+    /**
+     * Speed in tiles per tick of discs thrown from now on. Any speed is safe:
+     * a disc checks every tile it crosses, not just the one it lands on.
+     */
+    public void setSpeed(double tilesPerTick) {
+        if (!(tilesPerTick > 0))
+            throw new IllegalArgumentException("Disc speed must be > 0: " + tilesPerTick);
+        throwSpeed = tilesPerTick;
+    }
+
+    public double getSpeed() {
+        return throwSpeed;
+    }
+
+    /**
+     * Bounces off walls and jetwalls for discs thrown from now on; above 0
+     * they ricochet and fly up to RICOCHET_RANGE tiles, 0 (the default) stops
+     * them at the first wall after DEFAULT_RANGE tiles.
+     */
+    public void setBounces(int bounces) {
+        if (bounces < 0)
+            throw new IllegalArgumentException("Disc bounces must be >= 0: " + bounces);
+        throwBounces = bounces;
+    }
+
+    public int getBounces() {
+        return throwBounces;
+    }
+
+    /** Throws a disc from (row, col); returns its slot. */
+    public int add(int row, int col, Direction dir, int ownerId) {
+        int s = freeCount > 0 ? free[--freeCount] : newSlot();
+        this.row[s] = row;
+        this.col[s] = col;
+        smoothRow[s] = row;
+        smoothCol[s] = col;
+        speed[s] = throwSpeed;
+        direction[s] = (byte) dir.ordinal();
+        range[s] = throwBounces > 0 ? RICOCHET_RANGE : DEFAULT_RANGE;
+        travelled[s] = 0;
+        owner[s] = ownerId;
+        bounces[s] = throwBounces;
+        flags[s] = throwBounces > 0 ? ACTIVE | RICOCHET | PATH_STALE : ACTIVE;
+        glowTimer[s] = 0;
+        glowRow[s] = glowCol[s] = -1;
+        if (size == order.length)
+            order = Arrays.copyOf(order, size * 2);
+        order[size++] = s;
+        return s;
+    }
+
+    /** Steps every disc one tick, in throw order. */
+    public void update(Arena arena, OccupancyGrid occupancy) {
+        this.occupancy = occupancy;
+        playerHits = 0;
+        invalidatePaths(arena);
+        for (int i = 0; i < size; i++)
+            step(order[i], arena, occupancy);
+    }
+
+    /**
+     * One tick of one disc: glow runs down and a moving disc advances. The
+     * move is swept: every tile entered since the last tick is checked in
+     * order (a grid walk along the disc's axis), so a disc faster than a tile
+     * per tick cannot pass through anything. It stops on the first tile with
+     * a wall or jetwall (resting), the player if an enemy threw it (counted in
+     * {@link #getPlayerHits}, the caller applies the damage),
+     * or an enemy other than its thrower (consumed), or on the tile where it
+     * runs out of range (resting). A disc still on its tile re-checks it, so
+     * cycles driving into it are hit too. Player reclaim is left to the caller.
+     */
+    void step(int s, Arena arena, OccupancyGrid occupancy) {
+        if (glowTimer[s] > 0)
+            glowTimer[s]--;
+        if ((flags[s] & ACTIVE) == 0)
+            return;
+        if ((flags[s] & RICOCHET) != 0) {
+            stepRicochet(s, arena, occupancy);
+            return;
+        }
+
+        int dr = 0, dc = 0;
+        switch (DIRECTIONS[direction[s]]) {
+            case UP -> dr = -1;
+            case DOWN -> dr = 1;
+            case LEFT -> dc = -1;
+            case RIGHT -> dc = 1;
+        }
+        smoothRow[s] += dr * speed[s];
+        smoothCol[s] += dc * speed[s];
+        int r = (int) Math.round(smoothRow[s]);
+        int c = (int) Math.round(smoothCol[s]);
+        if (r == row[s] && c == col[s]) {
+            collide(s, arena, occupancy);
+            return;
+        }
+
+        while (row[s] != r || col[s] != c) {
+            row[s] += dr;
+            col[s] += dc;
+            travelled[s]++;
+            boolean stopped = collide(s, arena, occupancy);
+            if (!stopped && travelled[s] >= range[s]) {
+                flags[s] &= ~ACTIVE;
+                stopped = true;
+            }
+            if (stopped) {
+                if (row[s] != r || col[s] != c) { // cut short: rest on this tile
+                    smoothRow[s] = row[s];
+                    smoothCol[s] = col[s];
+                }
+                return;
+            }
+        }
+    }
+
+    // Collision checks on the disc's current tile; returns true if it stopped
+    private boolean collide(int s, Arena arena, OccupancyGrid occupancy) {
+        int r = row[s], c = col[s];
+        if (arena.isWall(r, c) || arena.isJetwall(r, c)) {
+            stop(s);
+            return true;
+        }
+        return collideCycles(s, occupancy);
+    }
+
+    private boolean collideCycles(int s, OccupancyGrid occupancy) {
+        int r = row[s], c = col[s];
+        int ownerId = owner[s];
+        if (ownerId != OccupancyGrid.PLAYER && occupancy.isPlayerAt(r, c)) {
+            stop(s);
+            playerHits++;
+            return true;
+        }
+        Enemy e = occupancy.enemyAt(r, c, ownerId);
+        if (e != null) {
+            stop(s);
+            flags[s] |= HIT_ENEMY;
+            e.hitByDisc();
+            return true;
+        }
+        return false;
+    }
+
+    // Collision: stop here and glow
+    private void stop(int s) {
+        glowTimer[s] = COLLISION_GLOW_DURATION;
+        glowRow[s] = row[s];
+        glowCol[s] = col[s];
+        flags[s] &= ~ACTIVE;
+    }
+
+    /* ================= RICOCHET ================= */
+
+    // Follows the planned path: only the tiles entered this tick are visited
+    // (for cycles), walls were settled when the path was planned
+    private void stepRicochet(int s, Arena arena, OccupancyGrid occupancy) {
+        if ((flags[s] & PATH_STALE) != 0 && !planPath(s, arena))
+            return;
+        int[] p = path[s];
+        int last = pathLength[s] - 1;
+        int k = pathIndex[s];
+        double u = pathPos[s] + speed[s];
+        int target = Math.min((int) Math.floor(u + 0.5), last);
+        if (target == k && collideCycles(s, occupancy)) {
+            dropPath(s);
+            return;
+        }
+        while (k < target) {
+            k++;
+            int cell = p[k] >> 2;
+            pathIndex[s] = k;
+            row[s] = cell / cols;
+            col[s] = cell % cols;
+            direction[s] = (byte) (p[k] & 3);
+            travelled[s]++;
+            if (k == last && (flags[s] & PATH_END_WALL) != 0) { // into the wall, no bounce left
+                smoothRow[s] = row[s];
+                smoothCol[s] = col[s];
+                stop(s);
+                dropPath(s);
+                return;
+            }
+            if (cell == p[k - 1] >> 2) { // bounced: glow on the wall
+                bounces[s]--;
+                int d = p[k - 1] & 3;
+                glowTimer[s] = COLLISION_GLOW_DURATION;
+                glowRow[s] = row[s] + dRow(d);
+                glowCol[s] = col[s] + dCol(d);
+            }
+            if (collideCycles(s, occupancy) || k == last) {
+                flags[s] &= ~ACTIVE; // hit a cycle, or out of range
+                smoothRow[s] = row[s];
+                smoothCol[s] = col[s];
+                dropPath(s);
+                return;
+            }
+        }
+        pathPos[s] = u;
+        double frac = u - k; // -0.5..0.5 around the centre of the tile, along the direction
+        smoothRow[s] = row[s] + dRow(p[k] & 3) * frac;
+        smoothCol[s] = col[s] + dCol(p[k] & 3) * frac;
+    }
+
+    // Plans the rest of the flight from the disc's tile and direction with
+    // the bounces and range it has left; false if it stopped instead
+    private boolean planPath(int s, Arena arena) {
+        double frac = pathLength[s] > 0 ? pathPos[s] - pathIndex[s] : 0.0;
+        dropPath(s);
+        flags[s] &= ~(PATH_STALE | PATH_END_WALL);
+        int r = row[s], c = col[s];
+        if (arena.isWall(r, c) || arena.isJetwall(r, c)) { // a jetwall was laid under it
+            stop(s);
+            return false;
+        }
+        int tilesLeft = range[s] - travelled[s];
+        if (tilesLeft <= 0) {
+            flags[s] &= ~ACTIVE;
+            return false;
+        }
+        if (pathRefs == null) {
+            rows = arena.getRows();
+            cols = arena.getCols();
+            pathRefs = new int[rows * cols];
+        }
+
+        int[] p = path[s];
+        if (p == null || p.length < tilesLeft + 1)
+            p = path[s] = new int[Math.max(16, tilesLeft + 1)];
+        int d = direction[s], b = bounces[s], n = 0;
+        p[n++] = (r * cols + c) << 2 | d;
+        for (int step = 0; step < tilesLeft; step++) {
+            int nr = r + dRow(d), nc = c + dCol(d);
+            boolean inBounds = nr >= 0 && nr < rows && nc >= 0 && nc < cols;
+            if (inBounds && !arena.isWall(nr, nc) && !arena.isJetwall(nr, nc)) {
+                r = nr;
+                c = nc;
+            } else if (b > 0) {
+                b--;
+                d ^= 1; // UP <-> DOWN, LEFT <-> RIGHT
+            } else {
+                if (inBounds) { // rests in the wall, like a disc without bounces
+                    r = nr;
+                    c = nc;
+                }
+                flags[s] |= PATH_END_WALL;
+                p[n++] = (r * cols + c) << 2 | d;
+                break;
+            }
+            p[n++] = (r * cols + c) << 2 | d;
+        }
+        pathLength[s] = n;
+        pathIndex[s] = 0;
+        pathPos[s] = frac;
+        pathVersion[s] = arena.getVersion();
+        refPath(s, 1);
+        return true;
+    }
+
+    private void dropPath(int s) {
+        if (pathLength[s] > 0)
+            refPath(s, -1);
+        pathLength[s] = 0;
+    }
+
+    // Counts the path's cells, and the walls it bounces off, in pathRefs
+    private void refPath(int s, int delta) {
+        int[] p = path[s];
+        for (int k = 0, n = pathLength[s]; k < n; k++) {
+            int cell = p[k] >> 2;
+            pathRefs[cell] += delta;
+            int wall = k > 0 && cell == p[k - 1] >> 2 ? wallOf(cell, p[k - 1] & 3) : -1;
+            if (wall >= 0)
+                pathRefs[wall] += delta;
+        }
+    }
+
+    // Re-plans the moving ricochet discs whose remaining path a cell changed
+    // on since it was planned (everything, if the change log fell behind)
+    private void invalidatePaths(Arena arena) {
+        long current = arena.getVersion();
+        long since = seenVersion;
+        if (current == since)
+            return;
+        seenVersion = current;
+        if (pathRefs == null)
+            return; // nothing planned yet
+        int n = since < 0 ? -1 : arena.getChangesSince(since, current, changes);
+        if (n < 0) {
+            for (int j = 0; j < size; j++) {
+                if (isFollowingPath(order[j]))
+                    flags[order[j]] |= PATH_STALE;
+            }
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            int cell = changes[i];
+            if (pathRefs[cell] == 0)
+                continue; // on no path: the usual case
+            long changed = since + 1 + i;
+            for (int j = 0; j < size; j++) {
+                int s = order[j];
+                if (isFollowingPath(s) && pathVersion[s] < changed && isAhead(s, cell))
+                    flags[s] |= PATH_STALE;
+            }
+        }
+    }
+
+    // Moving ricochet disc with a valid planned path
+    private boolean isFollowingPath(int s) {
+        return (flags[s] & (ACTIVE | RICOCHET | PATH_STALE)) == (ACTIVE | RICOCHET) && pathLength[s] > 0;
+    }
+
+    // Whether the cell is still ahead of the disc on its path (or a wall it will bounce off)
+    private boolean isAhead(int s, int cell) {
+        int[] p = path[s];
+        for (int k = pathIndex[s], n = pathLength[s]; k < n; k++) {
+            int at = p[k] >> 2;
+            if (at == cell)
+                return true;
+            if (k > pathIndex[s] && at == p[k - 1] >> 2 && wallOf(at, p[k - 1] & 3) == cell)
+                return true;
+        }
+        return false;
+    }
+
+    // Cell next to cell in direction d, or -1 off the grid
+    private int wallOf(int cell, int d) {
+        int r = cell / cols + dRow(d), c = cell % cols + dCol(d);
+        return r >= 0 && r < rows && c >= 0 && c < cols ? r * cols + c : -1;
+    }
+
+    private static int dRow(int d) {
+        return d == 0 ? -1 : d == 1 ? 1 : 0; // UP, DOWN
+    }
+
+    private static int dCol(int d) {
+        return d == 2 ? -1 : d == 3 ? 1 : 0; // LEFT, RIGHT
+    }
+
+    /** Player picks up a resting disc (no effect on one an enemy consumed). */
+    public void collect(int s) {
+        if ((flags[s] & (HIT_ENEMY | COLLECTED)) == 0)
+            flags[s] = (byte) ((flags[s] | COLLECTED) & ~ACTIVE);
+    }
+
+    /** Frees the slot; it leaves the live list on the next {@link #compact}. */
+    public void release(int s) {
+        flags[s] |= RELEASED;
+    }
+
+    /** Drops released slots from the live list, keeping throw order. */
+    public void compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int s = order[i];
+            if ((flags[s] & RELEASED) == 0) {
+                order[kept++] = s;
+            } else {
+                dropPath(s);
+                if (freeCount == free.length)
+                    free = Arrays.copyOf(free, freeCount * 2);
+                free[freeCount++] = s;
+            }
+        }
+        size = kept;
+    }
+
+    /* ================= QUERIES ================= */
+
+    /** Number of live discs (moving, resting or glowing out). */
+    public int size() {
+        return size;
+    }
+
+    /** Enemy discs that reached the player during the last {@link #update}. */
+    public int getPlayerHits() {
+        return playerHits;
+    }
+
+    /** Slot of the i-th live disc in throw order. */
+    public int slotAt(int i) {
+        return order[i];
+    }
+
+    public int getRow(int s) {
+        return row[s];
+    }
+
+    public int getCol(int s) {
+        return col[s];
+    }
+
+    public double getSmoothRow(int s) {
+        return smoothRow[s];
+    }
+
+    public double getSmoothCol(int s) {
+        return smoothCol[s];
+    }
+
+    public int getOwnerId(int s) {
+        return owner[s];
+    }
+
+    /** The enemy that threw the disc, null for the player's (or once the thrower has left the grid). */
+    public Enemy getOwner(int s) {
+        return owner[s] == OccupancyGrid.PLAYER || occupancy == null ? null : occupancy.getEnemy(owner[s]);
+    }
+
+    public boolean isActive(int s) {
+        return (flags[s] & ACTIVE) != 0;
+    }
+
+    public boolean hasHitEnemy(int s) {
+        return (flags[s] & HIT_ENEMY) != 0;
+    }
+
+    public boolean isCollected(int s) {
+        return (flags[s] & COLLECTED) != 0;
+    }
+
+    public boolean hasCollisionGlow(int s) {
+        return glowTimer[s] > 0;
+    }
+
+    public float getCollisionGlowIntensity(int s) {
+        return glowTimer[s] <= 0 ? 0.0f : (float) glowTimer[s] / COLLISION_GLOW_DURATION;
+    }
+
+    /** Cell of the last collision, or the disc's own cell if it never collided. */
+    public int getGlowRow(int s) {
+        return glowRow[s] >= 0 ? glowRow[s] : row[s];
+    }
+
+    public int getGlowCol(int s) {
+        return glowRow[s] >= 0 ? glowCol[s] : col[s];
+    }
+
+    /** Shared view of the slot; it follows the slot, so don't keep it past release. */
+    public Disc view(int s) {
+        Disc d = views[s];
+        if (d == null)
+            d = views[s] = new Disc(this, s);
+        return d;
+    }
+
+    private int newSlot() {
+        if (slotCount == row.length) {
+            int n = slotCount * 2;
+            row = Arrays.copyOf(row, n);
+            col = Arrays.copyOf(col, n);
+            smoothRow = Arrays.copyOf(smoothRow, n);
+            smoothCol = Arrays.copyOf(smoothCol, n);
+            speed = Arrays.copyOf(speed, n);
+            direction = Arrays.copyOf(direction, n);
+            range = Arrays.copyOf(range, n);
+            travelled = Arrays.copyOf(travelled, n);
+            owner = Arrays.copyOf(owner, n);
+            flags = Arrays.copyOf(flags, n);
+            glowTimer = Arrays.copyOf(glowTimer, n);
+            glowRow = Arrays.copyOf(glowRow, n);
+            glowCol = Arrays.copyOf(glowCol, n);
+            bounces = Arrays.copyOf(bounces, n);
+            views = Arrays.copyOf(views, n);
+            path = Arrays.copyOf(path, n);
+            pathLength = Arrays.copyOf(pathLength, n);
+            pathIndex = Arrays.copyOf(pathIndex, n);
+            pathPos = Arrays.copyOf(pathPos, n);
+            pathVersion = Arrays.copyOf(pathVersion, n);
+        }
+        return slotCount++;
+    }
+}
@@ -1,5 +1,9 @@
 package src.Enemy;
 
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import src.AI.AIPolicy;
+import src.AI.AIPolicyRegistry;
 import src.Arena.ArenaView;
 
 public abstract class Enemy {
@@ -15,6 +19,10 @@ public abstract class Enemy {
 
     protected int lives = 1;
     protected boolean alive = true;
+    protected int id = -1; // owner id of its jetwalls, assigned by the simulation
+
+    protected AIPolicy policy;
+    protected RandomGenerator random;
 
     public Enemy(String name, String color, double speed, double handling,
             double aggression, int xpReward, Position startPos) {
@@ -32,6 +40,19 @@ public abstract class Enemy {
     // Each enemy decides its own next move using AIController
     public abstract void decideNextMove(ArenaView arena);
 
+    /**
+     * Decision half of a step: asks the policy for a move without changing
+     * any state, so many enemies can decide concurrently on a shared view.
+     */
+    public Direction chooseMove(ArenaView arena) {
+        return getPolicy().decideMove(this, arena);
+    }
+
+    /** Resolution half of a step: turn and advance one tile. */
+    public void applyMove(Direction dir) {
+        move(dir);
+    }
+
     // Helper method to move in a direction
     protected void move(Direction dir) {
         this.direction = dir;
@@ -44,6 +65,14 @@ public abstract class Enemy {
         }
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public Position getPosition() {
         return position;
     }
@@ -83,4 +112,29 @@ public abstract class Enemy {
     public Direction getDirection() {
         return direction;
     }
+
+    /** AI policy deciding this enemy's moves (registry default for its name if unset). */
+    public AIPolicy getPolicy() {
+        if (policy == null)
+            policy = AIPolicyRegistry.forEnemy(name);
+        return policy;
+    }
+
+    public void setPolicy(AIPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * This enemy's own random stream (the simulation hands out one split of
+     * the match RNG per enemy, so parallel decisions stay reproducible).
+     */
+    public RandomGenerator getRandom() {
+        if (random == null)
+            random = new SplittableRandom();
+        return random;
+    }
+
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
 }
@@ -1,17 +1,31 @@
 package src.Enemy;
 
+import src.AI.AIPolicyRegistry;
 import src.Arena.ArenaView;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Scanner;
-
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class EnemyLoader {
 
+    public static final int DEFAULT_ENEMY_COUNT = 7;
+
     public static ArrayList<Enemy> loadEnemies(String filename, String difficulty, ArenaView arena, int mapRows,
             int mapCols) {
+        return loadEnemies(filename, difficulty, arena, mapRows, mapCols, DEFAULT_ENEMY_COUNT);
+    }
+
+    public static ArrayList<Enemy> loadEnemies(String filename, String difficulty, ArenaView arena, int mapRows,
+            int mapCols, int enemyCount) {
+        return loadEnemies(filename, difficulty, arena, mapRows, mapCols, enemyCount, new SplittableRandom());
+    }
+
+    /** Same as above, drawing enemy types and spawn cells from the given (match) RNG. */
+    public static ArrayList<Enemy> loadEnemies(String filename, String difficulty, ArenaView arena, int mapRows,
+            int mapCols, int enemyCount, RandomGenerator random) {
         ArrayList<Enemy> activeEnemies = new ArrayList<>();
         ArrayList<Enemy> enemyTemplates = new ArrayList<>();
 
@@ -49,10 +63,8 @@ public class EnemyLoader {
             return activeEnemies;
         }
 
-        // 2. SPAWN LOOP (Runs 7 times using RNG and Difficulty)
-        Random random = new Random();
-
-        for (int i = 0; i < 7; i++) {
+        // 2. SPAWN LOOP (Runs enemyCount times using RNG and Difficulty)
+        for (int i = 0; i < enemyCount; i++) {
             int roll = random.nextInt(100); // 0 to 99
             String nameToSpawn = "";
 
@@ -87,7 +99,7 @@ public class EnemyLoader {
             Enemy template = findTemplate(enemyTemplates, nameToSpawn);
 
             if (template != null) {
-                Position startPos = getRandomSpawn(arena, mapRows, mapCols);
+                Position startPos = getRandomSpawn(arena, mapRows, mapCols, random);
 
                 // Create the actual active enemy using template stats + new position
                 Enemy newEnemy = createEnemyFromName(
@@ -122,23 +134,30 @@ public class EnemyLoader {
     private static Enemy createEnemyFromName(
             String name, String color, double speed, double handling,
             double aggression, int xp, Position pos) {
+        Enemy enemy;
         switch (name.toLowerCase()) {
             case "clu":
-                return new Clu(speed, handling, aggression, xp, pos);
+                enemy = new Clu(speed, handling, aggression, xp, pos);
+                break;
             case "rinzler":
-                return new Rinzler(speed, handling, aggression, xp, pos);
+                enemy = new Rinzler(speed, handling, aggression, xp, pos);
+                break;
             case "sark":
-                return new Sark(speed, handling, aggression, xp, pos);
+                enemy = new Sark(speed, handling, aggression, xp, pos);
+                break;
             case "koura":
-                return new Koura(speed, handling, aggression, xp, pos);
+                enemy = new Koura(speed, handling, aggression, xp, pos);
+                break;
             default:
                 return null;
         }
+        // resolve the AI once here instead of on every move
+        enemy.setPolicy(AIPolicyRegistry.forEnemy(name));
+        return enemy;
     }
 
     // Generate a random safe position on the map
-    private static Position getRandomSpawn(ArenaView arena, int mapRows, int mapCols) {
-        Random rand = new Random();
+    private static Position getRandomSpawn(ArenaView arena, int mapRows, int mapCols, RandomGenerator rand) {
         while (true) {
             int r = rand.nextInt(mapRows);
             int c = rand.nextInt(mapCols);
@@ -0,0 +1,107 @@
+package src.Simulation;
+
+import src.Enemy.Direction;
+
+/**
+ * Player control state read by {@link Simulation} once per tick.
+ * The Swing front-end translates key events into these calls; a bot or a
+ * test harness can drive it directly.
+ *
+ * The whole state fits in one packed int (see {@link #takeState()}): the
+ * simulation takes a copy at the start of every tick, so key events arriving
+ * from the EDT mid-tick are seen on the next tick, and replays can record and
+ * restore exactly what each tick saw.
+ */
+public class PlayerInput {
+    // Packed state: bits 0-3 held directions (by ordinal), bit 4 persistent
+    // move, bits 5-6 direction of the last press, bit 7 disc throw requested
+    public static final int HELD_MASK = 0x0F;
+    public static final int PERSISTENT_BIT = 1 << 4;
+    public static final int LAST_PRESS_SHIFT = 5;
+    public static final int LAST_PRESS_MASK = 3 << LAST_PRESS_SHIFT;
+    public static final int DISC_THROW_BIT = 1 << 7;
+
+    private static final Direction[] DIRS = Direction.values();
+    // persistent target angle starts at 0 (facing right)
+    private static final int INITIAL_STATE = Direction.RIGHT.ordinal() << LAST_PRESS_SHIFT;
+
+    private int state = INITIAL_STATE;
+
+    /** Key for a direction went down: remember it as held and keep moving that way. */
+    public synchronized void press(Direction dir) {
+        state = (state & ~LAST_PRESS_MASK) | (1 << dir.ordinal()) | PERSISTENT_BIT
+                | (dir.ordinal() << LAST_PRESS_SHIFT);
+    }
+
+    /** Key for a direction was released (persistent movement continues). */
+    public synchronized void release(Direction dir) {
+        state &= ~(1 << dir.ordinal());
+    }
+
+    /** Stop persistent movement (the cycle coasts to a halt). */
+    public synchronized void stop() {
+        state &= ~PERSISTENT_BIT;
+    }
+
+    /** Ask the simulation to throw a disc on the next tick. */
+    public synchronized void requestDiscThrow() {
+        state |= DISC_THROW_BIT;
+    }
+
+    public synchronized void clear() {
+        state = INITIAL_STATE;
+    }
+
+    /** First held direction in UP, DOWN, LEFT, RIGHT priority, or null. */
+    public synchronized Direction firstHeld() {
+        return firstHeld(state);
+    }
+
+    public synchronized boolean isPersistentMove() {
+        return isPersistentMove(state);
+    }
+
+    public synchronized double getPersistentTargetAngle() {
+        return persistentTargetAngle(state);
+    }
+
+    /** Packed copy of the current state; clears the pending disc throw. */
+    public synchronized int takeState() {
+        int taken = state;
+        state &= ~DISC_THROW_BIT;
+        return taken;
+    }
+
+    /** Restore a state produced by {@link #takeState()} (replays). */
+    public synchronized void setState(int packed) {
+        state = packed & 0xFF;
+    }
+
+    /* ================= PACKED STATE ================= */
+
+    public static Direction firstHeld(int state) {
+        int held = state & HELD_MASK;
+        return held == 0 ? null : DIRS[Integer.numberOfTrailingZeros(held)];
+    }
+
+    public static boolean isPersistentMove(int state) {
+        return (state & PERSISTENT_BIT) != 0;
+    }
+
+    public static double persistentTargetAngle(int state) {
+        return angleOf(DIRS[(state & LAST_PRESS_MASK) >>> LAST_PRESS_SHIFT]);
+    }
+
+    public static boolean isDiscThrow(int state) {
+        return (state & DISC_THROW_BIT) != 0;
+    }
+
+    public static double angleOf(Direction dir) {
+        return switch (dir) {
+            case UP -> -Math.PI / 2;
+            case DOWN -> Math.PI / 2;
+            case LEFT -> Math.PI;
+            case RIGHT -> 0;
+        };
+    }
+}
@@ -0,0 +1,215 @@
+package src.Simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A recorded round: everything needed to rebuild the {@link Simulation}
+ * (seed, arena, difficulty, player stats, AI settings) plus its input stream.
+ *
+ * File layout (DataOutputStream, big endian): magic "FTRP", format version,
+ * the header fields in declaration order, then the stream length and bytes.
+ * Files with another version are rejected.
+ *
+ * The stream is a list of records, each starting with the varint
+ * (ticks since the previous record << 2 | kind):
+ * <ul>
+ * <li>INPUT + one byte of packed {@link PlayerInput} state, in effect from
+ * that tick on (only written when it changes)</li>
+ * <li>PAUSE + varint milliseconds the game stayed paused before that tick</li>
+ * <li>END + varints status ordinal, score and arena version, to check that a
+ * playback ended where the recording did</li>
+ * <li>MOVES + varint count and the directions the enemies due to step chose
+ * (2 bits each, ordinals packed four to a byte), one per decision phase;
+ * only written when the round searched within the time budget, whose
+ * results depend on the machine</li>
+ * </ul>
+ * A round where the player holds a key for a while costs a few bytes per
+ * key press.
+ */
+public class Replay {
+    static final int MAGIC = 0x46545250; // "FTRP"
+    static final int FORMAT_VERSION = 1;
+
+    static final int INPUT = 0;
+    static final int PAUSE = 1;
+    static final int END = 2;
+    static final int MOVES = 3;
+
+    // Header
+    final long seed;
+    final String arenaName;
+    final Long arenaSeed;
+    final int rows, cols;
+    final String difficulty;
+    final int roundNumber;
+    final String enemyFile;
+    final int enemyCount;
+    final String planner;
+    final boolean deterministicSearch;
+    final boolean derezClearsJetwalls;
+    final int jetwallLifetime;
+    final int discBounces;
+    final String playerName;
+    final int playerXp, playerLevel, playerDiscs, playerDiscSlot;
+    final double playerSpeed, playerLives;
+
+    final byte[] stream;
+
+    Replay(long seed, String arenaName, Long arenaSeed, int rows, int cols, String difficulty, int roundNumber,
+            String enemyFile, int enemyCount, String planner, boolean deterministicSearch,
+            boolean derezClearsJetwalls, int jetwallLifetime, int discBounces, String playerName, int playerXp,
+            int playerLevel, int playerDiscs, int playerDiscSlot, double playerSpeed, double playerLives,
+            byte[] stream) {
+        this.seed = seed;
+        this.arenaName = arenaName;
+        this.arenaSeed = arenaSeed;
+        this.rows = rows;
+        this.cols = cols;
+        this.difficulty = difficulty;
+        this.roundNumber = roundNumber;
+        this.enemyFile = enemyFile;
+        this.enemyCount = enemyCount;
+        this.planner = planner;
+        this.deterministicSearch = deterministicSearch;
+        this.derezClearsJetwalls = derezClearsJetwalls;
+        this.jetwallLifetime = jetwallLifetime;
+        this.discBounces = discBounces;
+        this.playerName = playerName;
+        this.playerXp = playerXp;
+        this.playerLevel = playerLevel;
+        this.playerDiscs = playerDiscs;
+        this.playerDiscSlot = playerDiscSlot;
+        this.playerSpeed = playerSpeed;
+        this.playerLives = playerLives;
+        this.stream = stream;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getArenaName() {
+        return arenaName;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /** Size of the encoded input stream in bytes. */
+    public int getStreamSize() {
+        return stream.length;
+    }
+
+    /* ================= FILE I/O ================= */
+
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null)
+            Files.createDirectories(dir);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(seed);
+        out.writeUTF(arenaName);
+        out.writeBoolean(arenaSeed != null);
+        if (arenaSeed != null)
+            out.writeLong(arenaSeed);
+        out.writeInt(rows);
+        out.writeInt(cols);
+        out.writeUTF(difficulty);
+        out.writeInt(roundNumber);
+        out.writeUTF(enemyFile);
+        out.writeInt(enemyCount);
+        out.writeUTF(planner);
+        out.writeBoolean(deterministicSearch);
+        out.writeBoolean(derezClearsJetwalls);
+        out.writeInt(jetwallLifetime);
+        out.writeInt(discBounces);
+        out.writeUTF(playerName);
+        out.writeInt(playerXp);
+        out.writeInt(playerLevel);
+        out.writeInt(playerDiscs);
+        out.writeInt(playerDiscSlot);
+        out.writeDouble(playerSpeed);
+        out.writeDouble(playerLives);
+        out.writeInt(stream.length);
+        out.write(stream);
+        out.flush();
+    }
+
+    public static Replay read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    public static Replay read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not a replay file");
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported replay version " + version);
+        long seed = in.readLong();
+        String arenaName = in.readUTF();
+        Long arenaSeed = in.readBoolean() ? in.readLong() : null;
+        int rows = in.readInt();
+        int cols = in.readInt();
+        String difficulty = in.readUTF();
+        int roundNumber = in.readInt();
+        String enemyFile = in.readUTF();
+        int enemyCount = in.readInt();
+        String planner = in.readUTF();
+        boolean deterministicSearch = in.readBoolean();
+        boolean derezClearsJetwalls = in.readBoolean();
+        int jetwallLifetime = in.readInt();
+        int discBounces = in.readInt();
+        String playerName = in.readUTF();
+        int playerXp = in.readInt();
+        int playerLevel = in.readInt();
+        int playerDiscs = in.readInt();
+        int playerDiscSlot = in.readInt();
+        double playerSpeed = in.readDouble();
+        double playerLives = in.readDouble();
+        byte[] stream = new byte[in.readInt()];
+        in.readFully(stream);
+        return new Replay(seed, arenaName, arenaSeed, rows, cols, difficulty, roundNumber, enemyFile, enemyCount,
+                planner, deterministicSearch, derezClearsJetwalls, jetwallLifetime, discBounces, playerName, playerXp,
+                playerLevel, playerDiscs, playerDiscSlot, playerSpeed, playerLives, stream);
+    }
+
+    /* ================= VARINTS ================= */
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
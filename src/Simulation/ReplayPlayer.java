@@ -0,0 +1,270 @@
+package src.Simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+import src.AI.AIController;
+import src.Arena.Arena;
+import src.Characters.CharacterLoader;
+import src.Characters.Characters;
+import src.Enemy.Direction;
+
+/**
+ * Plays a {@link Replay} back: rebuilds the round from the header and feeds
+ * the recorded input into the simulation tick by tick. Rounds that searched
+ * on the time budget also get their recorded enemy moves back, since the
+ * searches would not come out the same again.
+ *
+ * The simulation is exposed so a view can draw it while playing at any speed;
+ * headless callers can fast-forward to a tick (profiling, bug reports) and
+ * check that the playback ended where the recording did. Wall-clock pauses
+ * are counted but not waited for.
+ *
+ * Run from the project root: java src.Simulation.ReplayPlayer file.replay [tick]
+ */
+public class ReplayPlayer {
+    private static final long NANOS_PER_TICK = 1_000_000_000L / Simulation.TICKS_PER_SECOND;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Replay replay;
+    private final Simulation sim;
+
+    // decoded records (INPUT / PAUSE), in tick order
+    private final long[] recordTicks;
+    private final int[] recordKinds;
+    private final long[] recordValues;
+    private int next;
+
+    // MOVES records: tick, enemy count and offset of the packed directions in the stream
+    private final long[] moveTicks;
+    private final int[] moveCounts;
+    private final int[] moveOffsets;
+    private int nextMoves;
+
+    private final long endTick;
+    private final int endStatus;
+    private final long endScore, endVersion;
+
+    private int pauses;
+    private long pausedMillis;
+
+    public ReplayPlayer(Replay replay) throws IOException {
+        this.replay = replay;
+
+        // decode the whole stream up front so playback can't fail half way
+        byte[] in = replay.stream;
+        int[] pos = { 0 };
+        ArrayList<long[]> records = new ArrayList<>();
+        ArrayList<long[]> moveRecords = new ArrayList<>();
+        long tick = 0;
+        long[] end = null;
+        while (pos[0] < in.length && end == null) {
+            long head = readVarint(in, pos);
+            tick += head >>> 2;
+            int kind = (int) (head & 3);
+            switch (kind) {
+                case Replay.INPUT -> {
+                    if (pos[0] >= in.length)
+                        throw new IOException("Truncated replay stream");
+                    records.add(new long[] { tick, kind, in[pos[0]++] & 0xFF });
+                }
+                case Replay.PAUSE -> records.add(new long[] { tick, kind, readVarint(in, pos) });
+                case Replay.END -> end = new long[] { tick, readVarint(in, pos), readVarint(in, pos),
+                        readVarint(in, pos) };
+                case Replay.MOVES -> {
+                    long count = readVarint(in, pos);
+                    long bytes = (count + 3) / 4;
+                    if (bytes > in.length - pos[0])
+                        throw new IOException("Truncated replay stream");
+                    moveRecords.add(new long[] { tick, count, pos[0] });
+                    pos[0] += (int) bytes;
+                }
+                default -> throw new IOException("Unknown replay record " + kind);
+            }
+        }
+        if (end == null)
+            throw new IOException("Replay stream has no end record");
+        recordTicks = new long[records.size()];
+        recordKinds = new int[records.size()];
+        recordValues = new long[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            recordTicks[i] = records.get(i)[0];
+            recordKinds[i] = (int) records.get(i)[1];
+            recordValues[i] = records.get(i)[2];
+        }
+        moveTicks = new long[moveRecords.size()];
+        moveCounts = new int[moveRecords.size()];
+        moveOffsets = new int[moveRecords.size()];
+        for (int i = 0; i < moveRecords.size(); i++) {
+            moveTicks[i] = moveRecords.get(i)[0];
+            moveCounts[i] = (int) moveRecords.get(i)[1];
+            moveOffsets[i] = (int) moveRecords.get(i)[2];
+        }
+        endTick = end[0];
+        endStatus = (int) end[1];
+        endScore = end[2];
+        endVersion = end[3];
+
+        AIController.Planner planner;
+        try {
+            planner = AIController.Planner.valueOf(replay.planner);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown planner " + replay.planner);
+        }
+        Arena arena = new Arena(replay.arenaName, replay.arenaSeed, replay.rows, replay.cols);
+        sim = new Simulation(arena, loadPlayer(replay), replay.difficulty, replay.roundNumber, replay.enemyFile,
+                replay.enemyCount, replay.seed);
+        sim.setDerezClearsJetwalls(replay.derezClearsJetwalls);
+        sim.setJetwallLifetime(replay.jetwallLifetime);
+        sim.setDiscBounces(replay.discBounces);
+        sim.setPlanner(planner);
+        sim.setDeterministicSearch(replay.deterministicSearch);
+        if (moveTicks.length > 0)
+            sim.setMoveSource(this::nextMoves);
+    }
+
+    // The recorded character with the stats it started the round with
+    private static Characters loadPlayer(Replay replay) throws IOException {
+        ArrayList<Characters> characters = CharacterLoader.loadCharacters("Characters.txt");
+        if (characters != null) {
+            for (Characters c : characters) {
+                if (!c.getName().equalsIgnoreCase(replay.playerName))
+                    continue;
+                c.setLevel(replay.playerLevel);
+                c.setXp(replay.playerXp);
+                c.setLives(replay.playerLives);
+                c.setDiscSlot(replay.playerDiscSlot);
+                c.setDiscsOwned(replay.playerDiscs - c.getDiscsOwned()); // setters add to the current value
+                c.setSpeed(replay.playerSpeed - c.getSpeed());
+                return c;
+            }
+        }
+        throw new IOException("Character " + replay.playerName + " not found in Characters.txt");
+    }
+
+    /** Runs one tick with the recorded input; false once the recording has ended. */
+    public boolean step() {
+        if (isFinished())
+            return false;
+        long tick = sim.getTick() + 1;
+        while (next < recordTicks.length && recordTicks[next] <= tick) {
+            if (recordKinds[next] == Replay.INPUT) {
+                sim.getInput().setState((int) recordValues[next]);
+            } else {
+                pauses++;
+                pausedMillis += recordValues[next];
+            }
+            next++;
+        }
+        sim.tick();
+        return true;
+    }
+
+    // The recorded moves of the next decision phase, if it is the one the
+    // simulation is at; a diverged playback falls back to deciding
+    private boolean nextMoves(long tick, Direction[] moves, int count) {
+        while (nextMoves < moveTicks.length && moveTicks[nextMoves] < tick)
+            nextMoves++;
+        if (nextMoves == moveTicks.length || moveTicks[nextMoves] != tick || moveCounts[nextMoves] != count)
+            return false;
+        byte[] in = replay.stream;
+        int offset = moveOffsets[nextMoves++];
+        for (int i = 0; i < count; i++)
+            moves[i] = DIRECTIONS[(in[offset + i / 4] >>> (2 * (i % 4))) & 3];
+        return true;
+    }
+
+    /** Runs as fast as possible up to the given tick (or the end); returns the tick reached. */
+    public long fastForward(long tick) {
+        while (sim.getTick() < tick && step()) {
+        }
+        return sim.getTick();
+    }
+
+    /**
+     * Plays to the end at speed times real time (speed <= 0: as fast as
+     * possible), calling onTick after every tick.
+     */
+    public void play(double speed, Runnable onTick) {
+        long period = speed <= 0 ? 0 : (long) (NANOS_PER_TICK / speed);
+        long deadline = System.nanoTime();
+        while (step()) {
+            if (onTick != null)
+                onTick.run();
+            if (period > 0) {
+                deadline += period;
+                long wait;
+                while ((wait = deadline - System.nanoTime()) > 0)
+                    LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    public boolean isFinished() {
+        return sim.getTick() >= endTick || !sim.isRunning();
+    }
+
+    /** True once finished with the same tick, status, score and arena version as the recording. */
+    public boolean matchesRecording() {
+        return isFinished() && sim.getTick() == endTick && sim.getStatus().ordinal() == endStatus
+                && sim.getScore() == endScore && sim.getArena().getVersion() == endVersion;
+    }
+
+    public Simulation getSimulation() {
+        return sim;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /** Last tick of the recording. */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    public int getPauseCount() {
+        return pauses;
+    }
+
+    public long getPausedMillis() {
+        return pausedMillis;
+    }
+
+    private static long readVarint(byte[] in, int[] pos) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= in.length)
+                throw new IOException("Truncated replay stream");
+            int b = in[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed varint in replay stream");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: java src.Simulation.ReplayPlayer file.replay [tick]");
+            return;
+        }
+        Replay replay = Replay.read(Path.of(args[0]));
+        ReplayPlayer player = new ReplayPlayer(replay);
+        long target = args.length > 1 ? Long.parseLong(args[1]) : Long.MAX_VALUE;
+        System.out.printf("%s, round %d, %s on %s, seed %d, %d ticks in %d bytes%n", replay.getPlayerName(),
+                replay.getRoundNumber(), replay.getDifficulty(), replay.getArenaName(), replay.getSeed(),
+                player.getEndTick(), replay.getStreamSize());
+
+        long t0 = System.nanoTime();
+        long reached = player.fastForward(target);
+        double secs = (System.nanoTime() - t0) / 1e9;
+        Simulation sim = player.getSimulation();
+        System.out.printf("tick %d (%.0f ticks/s): %s, score %d, %d enemies left%n", reached,
+                reached / Math.max(secs, 1e-9), sim.getStatus(), sim.getScore(), sim.getEnemies().size());
+        if (player.isFinished())
+            System.out.println(player.matchesRecording() ? "playback matches the recording"
+                    : "playback DIVERGED from the recording");
+    }
+}
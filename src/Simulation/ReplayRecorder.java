@@ -0,0 +1,98 @@
+package src.Simulation;
+
+import java.io.ByteArrayOutputStream;
+import src.Enemy.Direction;
+import src.Arena.Arena;
+import src.Characters.Characters;
+
+/**
+ * Records a round into a {@link Replay}.
+ *
+ * Create it on a fresh simulation (the header captures the player stats it
+ * starts with) and attach it with {@link Simulation#setRecorder}; the
+ * simulation reports the input state of every tick and only changes are
+ * written. Pauses are reported by the front-end. Call {@link #finish()} when
+ * the round is over, or at any point to get the replay so far.
+ *
+ * Thread-safe: ticks run on the game thread, pauses come from the EDT.
+ */
+public class ReplayRecorder {
+    private final Simulation sim;
+    private final Replay header;
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream(256);
+    private long lastTick; // tick of the previous record
+    private int lastState = -1;
+    private long pausedAt = -1;
+
+    public ReplayRecorder(Simulation sim) {
+        if (sim.getTick() != 0)
+            throw new IllegalStateException("Attach the recorder before the first tick");
+        this.sim = sim;
+        Arena arena = sim.getArena();
+        Characters player = sim.getPlayer();
+        header = new Replay(sim.getSeed(), arena.getName(), arena.getSeed(), arena.getRows(), arena.getCols(),
+                sim.getDifficulty(), sim.getRoundNumber(), sim.getEnemyFile(), sim.getEnemyCount(),
+                sim.getPlanner().name(), sim.isDeterministicSearch(), sim.isDerezClearsJetwalls(),
+                sim.getJetwallLifetime(), sim.getDiscBounces(), player.getName(), player.getXp(), player.getLevel(),
+                player.getDiscsOwned(), player.getDiscSlot(), player.getSpeed(), player.getLives(), null);
+    }
+
+    /** Input state the simulation used on the given tick (called by Simulation). */
+    synchronized void recordInput(long tick, int state) {
+        if (state == lastState)
+            return;
+        record(tick, Replay.INPUT);
+        stream.write(state);
+        lastState = state;
+    }
+
+    /**
+     * Moves the enemies chose in one decision phase, in mover order (called by
+     * Simulation when the search ran on the time budget).
+     */
+    synchronized void recordMoves(long tick, Direction[] moves, int count) {
+        record(tick, Replay.MOVES);
+        Replay.writeVarint(stream, count);
+        for (int i = 0; i < count; i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4 && i + j < count; j++)
+                packed |= moves[i + j].ordinal() << (2 * j);
+            stream.write(packed);
+        }
+    }
+
+    /** The game was paused (wall clock only; no ticks run until {@link #resumed()}). */
+    public synchronized void paused() {
+        if (pausedAt < 0)
+            pausedAt = System.currentTimeMillis();
+    }
+
+    public synchronized void resumed() {
+        if (pausedAt < 0)
+            return;
+        long millis = System.currentTimeMillis() - pausedAt;
+        pausedAt = -1;
+        record(sim.getTick() + 1, Replay.PAUSE);
+        Replay.writeVarint(stream, millis);
+    }
+
+    /** The replay up to the last tick, ending with the current result. */
+    public synchronized Replay finish() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(stream.size() + 16);
+        out.writeBytes(stream.toByteArray());
+        Replay.writeVarint(out, (sim.getTick() - lastTick) << 2 | Replay.END);
+        Replay.writeVarint(out, sim.getStatus().ordinal());
+        Replay.writeVarint(out, sim.getScore());
+        Replay.writeVarint(out, sim.getArena().getVersion());
+        Replay h = header;
+        return new Replay(h.seed, h.arenaName, h.arenaSeed, h.rows, h.cols, h.difficulty, h.roundNumber,
+                h.enemyFile, h.enemyCount, h.planner, h.deterministicSearch, h.derezClearsJetwalls,
+                h.jetwallLifetime, h.discBounces, h.playerName, h.playerXp, h.playerLevel, h.playerDiscs,
+                h.playerDiscSlot, h.playerSpeed, h.playerLives, out.toByteArray());
+    }
+
+    private void record(long tick, int kind) {
+        Replay.writeVarint(stream, (tick - lastTick) << 2 | kind);
+        lastTick = tick;
+    }
+}
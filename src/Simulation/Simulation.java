@@ -0,0 +1,885 @@
+package src.Simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import src.AI.AIContext;
+import src.AI.AIController;
+import src.AI.DistanceField;
+import src.Arena.Arena;
+import src.Arena.ArenaSnapshot;
+import src.Arena.OccupancyGrid;
+import src.Characters.Characters;
+import src.Disc.Disc;
+import src.Disc.DiscPool;
+import src.Enemy.Direction;
+import src.Enemy.Enemy;
+import src.Enemy.EnemyLoader;
+import src.Enemy.Position;
+
+/**
+ * Headless game core for a single round.
+ *
+ * Owns the arena, the player, the enemies and the discs and applies all game
+ * rules one fixed tick at a time (player movement + jetwall placement, enemy
+ * AI, discs, win/lose conditions). It has no Swing dependency: GameEngine is
+ * only a view/input adapter on top of it, and balancing / regression runs can
+ * construct one directly and call {@link #tick()} in a loop.
+ */
+public class Simulation {
+
+    public enum Status {
+        RUNNING, ROUND_WON, PLAYER_DEAD
+    }
+
+    // Recorded enemy moves for playback of a round that searched on the time budget
+    interface MoveSource {
+        /** Fills moves[0..count) for this tick's next decision phase; false if none were recorded. */
+        boolean nextMoves(long tick, Direction[] moves, int count);
+    }
+
+    public static final int TICKS_PER_SECOND = 60;
+    public static final int TILE_SIZE = 15; // player movement is in "pixels" of this tile size
+    public static final int DISC_COOLDOWN_TICKS = 300;
+    public static final int DAMAGE_COOLDOWN_TICKS = TICKS_PER_SECOND / 2; // invulnerable after a hit
+    public static final String DEFAULT_ENEMY_FILE = "src/Enemy/enemies.txt";
+
+    // Jetwall owner ids (Arena.placeJetwall): the player is 0, enemies 1..n in spawn order
+    public static final int PLAYER_OWNER = OccupancyGrid.PLAYER;
+
+    // Arenas bigger than this only keep player distances for the area around the player
+    private static final int LARGE_ARENA_CELLS = 200 * 200;
+    private static final int LARGE_ARENA_DISTANCE_RADIUS = 128;
+
+    // Fewer enemies than this deciding in one step are not worth the fork/join
+    private static final int PARALLEL_DECISION_THRESHOLD = 8;
+
+    // Fate of a mover while a step is resolved
+    private static final byte UNRESOLVED = 0, MOVES = 1, CRASHES = 2;
+
+    private final Arena arena;
+    private final Characters player;
+    private final String difficulty;
+    private final int roundNumber;
+    private final String enemyFile;
+    private final int enemyCount;
+    private final PlayerInput input = new PlayerInput();
+    private SimulationListener listener = SimulationListener.NONE;
+    private ReplayRecorder recorder;
+    private MoveSource moveSource;
+
+    private final List<Enemy> enemies = new ArrayList<>();
+    private final DiscPool discs = new DiscPool();
+    private final double[] moveAcc; // per enemy id: tiles of movement due
+    private final OccupancyGrid occupancy; // cycles by cell, updated as they move
+
+    // Match RNG: every random decision of the round comes from a split of it
+    private final long seed;
+    private final SplittableRandom random;
+    private final SplittableRandom viewRandom;
+
+    // Enemy steps: decide on a frozen snapshot, then resolve together
+    private final ArenaSnapshot decisionView = new ArenaSnapshot();
+    private final AIContext aiContext; // the snapshot plus player distances and enemy cells
+    private Enemy[] movers = new Enemy[16];
+    private Direction[] moves = new Direction[16];
+    private int[] fromCells = new int[16];
+    private int[] toCells = new int[16];
+    private byte[] fate = new byte[16];
+    private int[] walked = new int[16]; // per mover: last loop search that visited it
+    private int[] loop = new int[16];
+    private int[] moverPass = new int[16]; // per enemy id: last resolve pass it moved in
+    private int[] moverIndex = new int[16]; // per enemy id: its index in movers during that pass
+    private final int[] claimPass; // per cell: last resolve pass a mover targeted it
+    private final int[] claims; // per cell: movers targeting it in claimPass
+    private int resolvePass;
+    private int loopSearch;
+
+    // Player movement state (pixel space, TILE_SIZE per cell)
+    private double playerPixelX, playerPixelY;
+    private Direction playerDirection = Direction.RIGHT;
+    private double currentAngle = 0;
+    private double targetAngle = 0;
+    private double velocity = 0;
+
+    // Track previous player tile (used to place jetwall on tile left)
+    private int prevPlayerGridRow = -1;
+    private int prevPlayerGridCol = -1;
+
+    private int discCooldownCounter = 0;
+    private int damageCooldownCounter = 0;
+    private int score = 0;
+    private long tick = 0;
+    private Status status = Status.RUNNING;
+
+    // Rule options, set before the first tick (recorded in replays)
+    private boolean derezClearsJetwalls;
+
+    public Simulation(Arena arena, Characters player, String difficulty, int roundNumber) {
+        this(arena, player, difficulty, roundNumber, DEFAULT_ENEMY_FILE);
+    }
+
+    public Simulation(Arena arena, Characters player, String difficulty, int roundNumber, String enemyFile) {
+        this(arena, player, difficulty, roundNumber, enemyFile, EnemyLoader.DEFAULT_ENEMY_COUNT);
+    }
+
+    /**
+     * @param enemyCount how many enemies to spawn (e.g. 50+ for battle royale
+     *                   rounds on a large arena)
+     */
+    public Simulation(Arena arena, Characters player, String difficulty, int roundNumber, String enemyFile,
+            int enemyCount) {
+        this(arena, player, difficulty, roundNumber, enemyFile, enemyCount, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @param seed match seed; the same seed, arena and inputs replay the round
+     *             tick for tick
+     */
+    public Simulation(Arena arena, Characters player, String difficulty, int roundNumber, String enemyFile,
+            int enemyCount, long seed) {
+        this.arena = arena;
+        this.player = player;
+        this.difficulty = difficulty == null ? "EASY" : difficulty;
+        this.roundNumber = roundNumber;
+        this.enemyFile = enemyFile;
+        this.enemyCount = enemyCount;
+
+        Position spawn = arena.getPlayerSpawn();
+        playerPixelX = spawn.col * TILE_SIZE + TILE_SIZE / 2.0;
+        playerPixelY = spawn.row * TILE_SIZE + TILE_SIZE / 2.0;
+        arena.setPlayerPosition(spawn);
+        occupancy = new OccupancyGrid(arena.getRows(), arena.getCols());
+        occupancy.setPlayer(spawn.row, spawn.col);
+        claimPass = new int[arena.getRows() * arena.getCols()];
+        claims = new int[arena.getRows() * arena.getCols()];
+
+        aiContext = new AIContext(new DistanceField(
+                arena.getRows() * arena.getCols() > LARGE_ARENA_CELLS ? LARGE_ARENA_DISTANCE_RADIUS : 0));
+
+        // initialize prev player tile so the first move places a jetwall at spawn tile
+        prevPlayerGridRow = spawn.row;
+        prevPlayerGridCol = spawn.col;
+
+        this.seed = seed;
+        SplittableRandom matchRandom = new SplittableRandom(seed);
+        enemies.addAll(EnemyLoader.loadEnemies(enemyFile, this.difficulty, arena, arena.getRows(),
+                arena.getCols(), enemyCount, matchRandom.split()));
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            e.setRandom(matchRandom.split());
+            e.setId(PLAYER_OWNER + 1 + i);
+            occupancy.place(e);
+        }
+        moveAcc = new double[PLAYER_OWNER + 1 + enemies.size()];
+        random = matchRandom.split();
+        viewRandom = matchRandom.split();
+    }
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener == null ? SimulationListener.NONE : listener;
+    }
+
+    /**
+     * When on, a derezzed enemy's jetwalls disappear with it. Set it before
+     * the first tick and before creating a {@link ReplayRecorder}, which
+     * captures it.
+     */
+    public void setDerezClearsJetwalls(boolean on) {
+        this.derezClearsJetwalls = on;
+    }
+
+    public boolean isDerezClearsJetwalls() {
+        return derezClearsJetwalls;
+    }
+
+    /**
+     * Trail lifetime: every jetwall disappears this many ticks after it was
+     * laid (0 = permanent). Same timing rules as setDerezClearsJetwalls.
+     */
+    public void setJetwallLifetime(int ticks) {
+        arena.setJetwallLifetime(ticks);
+    }
+
+    public int getJetwallLifetime() {
+        return arena.getJetwallLifetime();
+    }
+
+    /**
+     * Ricochet mode: discs bounce off walls and jetwalls this many times
+     * (0 = they stop at the first one). Same timing rules as
+     * setDerezClearsJetwalls.
+     */
+    public void setDiscBounces(int bounces) {
+        discs.setBounces(bounces);
+    }
+
+    public int getDiscBounces() {
+        return discs.getBounces();
+    }
+
+    /**
+     * Close-fight planner for this round's enemies (see
+     * {@link AIController.Planner}). Same timing rules as
+     * setDerezClearsJetwalls.
+     */
+    public void setPlanner(AIController.Planner planner) {
+        aiContext.setPlanner(planner);
+    }
+
+    public AIController.Planner getPlanner() {
+        return aiContext.getPlanner();
+    }
+
+    /**
+     * Search a fixed amount per decision instead of within the per-tick time
+     * budget, so the round replays from the seed and input alone on any
+     * machine. For headless runs; live play keeps the budget and its replays
+     * carry the enemy moves instead. Same timing rules as
+     * setDerezClearsJetwalls.
+     */
+    public void setDeterministicSearch(boolean on) {
+        aiContext.setDeterministicSearch(on);
+    }
+
+    public boolean isDeterministicSearch() {
+        return aiContext.isDeterministicSearch();
+    }
+
+    /**
+     * Record this round's input from the next tick on (null stops recording).
+     * Attach before the first tick to get a replay that can be played back.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Replays take the recorded enemy moves instead of deciding them again
+    void setMoveSource(MoveSource source) {
+        this.moveSource = source;
+    }
+
+    /** Advance the round by one tick. Does nothing once the round is over. */
+    public void tick() {
+        if (status != Status.RUNNING)
+            return;
+        tick++;
+        arena.setTick(tick);
+        arena.expireJetwalls();
+
+        int inputState = input.takeState();
+        if (recorder != null)
+            recorder.recordInput(tick, inputState);
+        if (PlayerInput.isDiscThrow(inputState))
+            throwPlayerDisc();
+
+        processPlayerMovement(inputState);
+        updateAiState();
+        processEnemyMovement();
+        processDiscs();
+
+        if (discCooldownCounter > 0)
+            discCooldownCounter--;
+        if (damageCooldownCounter > 0)
+            damageCooldownCounter--;
+
+        checkGameConditions();
+    }
+
+    /** Run ticks until the round ends or maxTicks is reached; returns the final status. */
+    public Status runUntilDone(long maxTicks) {
+        for (long i = 0; i < maxTicks && status == Status.RUNNING; i++)
+            tick();
+        return status;
+    }
+
+    /**
+     * Main player movement + jetwall placement logic (tile-based).
+     * - place a jetwall on the tile the player just left (prevPlayerGridRow/Col)
+     * - if player skipped multiple tiles, fill the straight line of tiles between
+     * prev and current (excluding player's current tile).
+     */
+    private void processPlayerMovement(int inputState) {
+        Direction held = PlayerInput.firstHeld(inputState);
+        boolean persistent = PlayerInput.isPersistentMove(inputState);
+        if (persistent)
+            targetAngle = PlayerInput.persistentTargetAngle(inputState);
+        else if (held != null)
+            targetAngle = PlayerInput.angleOf(held);
+
+        // snap rotation for simpler responsiveness
+        currentAngle = targetAngle;
+
+        boolean isMoving = persistent || held != null;
+
+        double maxSpeed = 2.0 + player.getSpeed() * 0.3;
+        if (isMoving) {
+            velocity += 0.15;
+            if (velocity > maxSpeed)
+                velocity = maxSpeed;
+        } else {
+            velocity *= 0.92;
+            if (velocity < 0.1)
+                velocity = 0;
+        }
+
+        double newX = playerPixelX + Math.cos(currentAngle) * velocity;
+        double newY = playerPixelY + Math.sin(currentAngle) * velocity;
+
+        int gridRow = (int) (newY / TILE_SIZE);
+        int gridCol = (int) (newX / TILE_SIZE);
+
+        if (!arena.inBounds(gridRow, gridCol)) {
+            handlePlayerFallOff();
+            return;
+        }
+
+        if (arena.isWall(gridRow, gridCol)) {
+            handlePlayerCollision(gridRow, gridCol, "Hit wall! -0.5 lives");
+            velocity = 0;
+            return;
+        }
+
+        if (arena.isJetwall(gridRow, gridCol)) {
+            handlePlayerCollision(gridRow, gridCol, "Hit jetwall! -0.5 lives");
+            velocity = 0;
+            return;
+        }
+
+        // --- PLACE JETWALL(S) BASED ON TILE TRANSITION ---
+        if (prevPlayerGridRow != -1 && prevPlayerGridCol != -1
+                && (gridRow != prevPlayerGridRow || gridCol != prevPlayerGridCol)) {
+            // place on the tile we left (prev)
+            if (arena.inBounds(prevPlayerGridRow, prevPlayerGridCol))
+                arena.placeJetwall(prevPlayerGridRow, prevPlayerGridCol, PLAYER_OWNER);
+
+            // fill intermediate tiles if we skipped tiles (line from prev to current),
+            // but do NOT overwrite the player's current tile.
+            int r = prevPlayerGridRow;
+            int c = prevPlayerGridCol;
+            while (r != gridRow || c != gridCol) {
+                if (r < gridRow)
+                    r++;
+                else if (r > gridRow)
+                    r--;
+                if (c < gridCol)
+                    c++;
+                else if (c > gridCol)
+                    c--;
+
+                if (r == gridRow && c == gridCol)
+                    break;
+                if (!arena.inBounds(r, c))
+                    break;
+                arena.placeJetwall(r, c, PLAYER_OWNER);
+            }
+        }
+
+        // Update player pixel position & grid pos AFTER placing jetwalls
+        playerPixelX = newX;
+        playerPixelY = newY;
+
+        arena.setPlayerPosition(new Position(gridRow, gridCol));
+        occupancy.setPlayer(gridRow, gridCol);
+        updatePlayerDirection();
+
+        prevPlayerGridRow = gridRow;
+        prevPlayerGridCol = gridCol;
+
+        checkPlayerEnemyCollision();
+    }
+
+    // Per-tick AI input: the cell of the one BFS field shared by every enemy,
+    // brought up to date only if an enemy reads it (incremental when only a
+    // few walls changed)
+    private void updateAiState() {
+        int row = prevPlayerGridRow, col = prevPlayerGridCol;
+        if (arena.inBounds(row, col))
+            aiContext.setPlayerCell(arena, row, col);
+    }
+
+    private void updatePlayerDirection() {
+        double angle = currentAngle;
+        while (angle < 0)
+            angle += Math.PI * 2;
+        while (angle >= Math.PI * 2)
+            angle -= Math.PI * 2;
+
+        if (angle < Math.PI / 4 || angle >= 7 * Math.PI / 4)
+            playerDirection = Direction.RIGHT;
+        else if (angle < 3 * Math.PI / 4)
+            playerDirection = Direction.DOWN;
+        else if (angle < 5 * Math.PI / 4)
+            playerDirection = Direction.LEFT;
+        else
+            playerDirection = Direction.UP;
+    }
+
+    /**
+     * Enemy movement, one tile step at a time in two phases. Every enemy due
+     * to move decides against the same frozen snapshot (in parallel once there
+     * are enough of them), then all moves are resolved together. A mover
+     * crashes when it drives into a wall or jetwall, onto the same cell as
+     * another mover, or into a cell another mover actually leaves (its new
+     * trail). A mover that crashes stays where it is and lays no trail, so
+     * driving into its cell is as safe as driving into the cell of an enemy
+     * not moving this step. Each mover's fate therefore waits on the movers
+     * in its target cell; movers that end up waiting on each other in a loop
+     * (e.g. two swapping cells head on) all crash. The others lay their
+     * jetwall and advance. Unlike deciding and moving one enemy at a time,
+     * the outcome does not depend on the order of the list. Enemies with more
+     * than one tile due this tick repeat the step.
+     */
+    private void processEnemyMovement() {
+        if (enemies.isEmpty())
+            return;
+        final double tilesPerTickFactor = 1.0 / TICKS_PER_SECOND;
+        int count = 0;
+        for (Enemy enemy : enemies) {
+            if (!enemy.isAlive())
+                continue;
+            double acc = moveAcc[enemy.getId()] += enemy.getSpeed() * tilesPerTickFactor;
+            if (acc >= 1.0)
+                count = addMover(count, enemy);
+        }
+
+        while (count > 0) {
+            decisionView.capture(arena);
+            aiContext.update(decisionView, enemies);
+            if (moveSource == null || !moveSource.nextMoves(tick, moves, count))
+                decideMoves(count);
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == null)
+                    moves[i] = movers[i].getDirection(); // policy gave up: keep going straight
+            }
+            // time-budgeted searches differ from machine to machine: keep what they chose
+            if (recorder != null && !aiContext.isDeterministicSearch())
+                recorder.recordMoves(tick, moves, count);
+            count = resolveMoves(count);
+        }
+    }
+
+    private int addMover(int count, Enemy enemy) {
+        if (count == movers.length) {
+            int size = count * 2;
+            movers = Arrays.copyOf(movers, size);
+            moves = Arrays.copyOf(moves, size);
+            fromCells = new int[size];
+            toCells = new int[size];
+            fate = new byte[size];
+            walked = new int[size];
+            loop = new int[size];
+        }
+        movers[count] = enemy;
+        return count + 1;
+    }
+
+    private void markMover(int id, int pass, int index) {
+        if (id >= moverPass.length) {
+            int size = Math.max(id + 1, moverPass.length * 2);
+            moverPass = Arrays.copyOf(moverPass, size);
+            moverIndex = Arrays.copyOf(moverIndex, size);
+        }
+        moverPass[id] = pass;
+        moverIndex[id] = index;
+    }
+
+    // Decision phase: read-only, against the snapshot
+    private void decideMoves(int count) {
+        if (count >= PARALLEL_DECISION_THRESHOLD) {
+            IntStream.range(0, count).parallel().forEach(i -> moves[i] = movers[i].chooseMove(aiContext));
+        } else {
+            for (int i = 0; i < count; i++)
+                moves[i] = movers[i].chooseMove(aiContext);
+        }
+    }
+
+    // Resolution phase; returns how many movers still have a tile due (compacted to the front)
+    private int resolveMoves(int count) {
+        int cols = arena.getCols();
+        int pass = ++resolvePass;
+        for (int i = 0; i < count; i++) {
+            Enemy enemy = movers[i];
+            Position p = enemy.getPosition();
+            int r = p.row, c = p.col;
+            fromCells[i] = r * cols + c;
+            switch (moves[i]) {
+                case UP -> r--;
+                case DOWN -> r++;
+                case LEFT -> c--;
+                case RIGHT -> c++;
+            }
+            toCells[i] = arena.isEmpty(r, c) ? r * cols + c : -1;
+            markMover(enemy.getId(), pass, i);
+            int to = toCells[i];
+            if (to >= 0) {
+                claims[to] = claimPass[to] == pass ? claims[to] + 1 : 1;
+                claimPass[to] = pass;
+            }
+        }
+
+        // Crash into a wall, a jetwall or a cell two movers want; the rest
+        // depends on the movers already on the target cell, settled in
+        // dependency order until nothing changes
+        int unresolved = 0;
+        for (int i = 0; i < count; i++) {
+            int to = toCells[i];
+            fate[i] = to < 0 || claims[to] > 1 ? CRASHES : UNRESOLVED;
+            if (fate[i] == UNRESOLVED)
+                unresolved++;
+        }
+        while (unresolved > 0) {
+            boolean progress = false;
+            for (int i = 0; i < count; i++) {
+                if (fate[i] != UNRESOLVED)
+                    continue;
+                fate[i] = fateFromTarget(toCells[i], pass, cols);
+                if (fate[i] != UNRESOLVED) {
+                    unresolved--;
+                    progress = true;
+                }
+            }
+            if (!progress)
+                unresolved -= crashLoop(count, pass, cols);
+        }
+
+        int due = 0;
+        for (int i = 0; i < count; i++) {
+            Enemy enemy = movers[i];
+            if (fate[i] == CRASHES) {
+                enemy.hitJetwall();
+                if (!enemy.isAlive()) {
+                    listener.onEvent(enemy.getName() + " derezzed by wall!");
+                    awardXP(enemy.getXpReward() / 2);
+                    moveAcc[enemy.getId()] = 0;
+                }
+                continue;
+            }
+
+            arena.placeJetwall(fromCells[i] / cols, fromCells[i] % cols, enemy.getId());
+            enemy.applyMove(moves[i]);
+            occupancy.place(enemy);
+            listener.onEnemyMoved(enemy);
+            if (random.nextDouble() < 0.02 * Math.min(enemy.getSpeed(), 5.0))
+                throwEnemyDisc(enemy);
+
+            if (--moveAcc[enemy.getId()] >= 1.0)
+                movers[due++] = enemy;
+        }
+        return due;
+    }
+
+    // A mover on the target cell that gets away leaves its jetwall there: crash.
+    // Movers that crash stay put and, like cycles not moving this step, do
+    // not block. UNRESOLVED while a mover there is still undecided.
+    private byte fateFromTarget(int to, int pass, int cols) {
+        boolean waiting = false;
+        for (int id = occupancy.firstOnCell(to / cols, to % cols); id != OccupancyGrid.NONE;
+                id = occupancy.nextOnCell(id)) {
+            if (moverPass[id] != pass)
+                continue;
+            byte f = fate[moverIndex[id]];
+            if (f == MOVES)
+                return CRASHES;
+            waiting |= f == UNRESOLVED;
+        }
+        return waiting ? UNRESOLVED : MOVES;
+    }
+
+    // First undecided mover on the target cell of mover i
+    private int waitingOn(int i, int pass, int cols) {
+        int to = toCells[i];
+        for (int id = occupancy.firstOnCell(to / cols, to % cols); id != OccupancyGrid.NONE;
+                id = occupancy.nextOnCell(id)) {
+            if (moverPass[id] == pass && fate[moverIndex[id]] == UNRESOLVED)
+                return moverIndex[id];
+        }
+        return -1;
+    }
+
+    // Nothing left to settle means undecided movers wait on each other in a
+    // loop (two cycles swapping cells head on, or a ring chasing its own
+    // tails): every mover of one such loop crashes. Returns how many.
+    private int crashLoop(int count, int pass, int cols) {
+        int i = 0;
+        while (fate[i] != UNRESOLVED)
+            i++;
+        int search = ++loopSearch;
+        while (walked[i] != search) { // follow the waits until one repeats
+            walked[i] = search;
+            i = waitingOn(i, pass, cols);
+        }
+        int n = 0;
+        int j = i;
+        do {
+            loop[n++] = j;
+            j = waitingOn(j, pass, cols);
+        } while (j != i);
+        for (int k = 0; k < n; k++)
+            fate[loop[k]] = CRASHES;
+        return n;
+    }
+
+    private void processDiscs() {
+        discs.update(arena, occupancy);
+        if (discs.getPlayerHits() > 0)
+            handlePlayerDiscHit();
+        for (int i = 0, n = discs.size(); i < n; i++) {
+            int s = discs.slotAt(i);
+            if (discs.hasHitEnemy(s)) {
+                if (!discs.hasCollisionGlow(s))
+                    discs.release(s);
+                continue;
+            }
+            if (discs.isActive(s))
+                continue;
+            if (discs.isCollected(s)) {
+                discs.release(s);
+                continue;
+            }
+
+            if (discs.getOwnerId(s) == PLAYER_OWNER && occupancy.isPlayerAt(discs.getRow(s), discs.getCol(s))) {
+                player.setDiscsOwned(player.getDiscsOwned() + 1);
+                discs.collect(s);
+                listener.onEvent("Disc reclaimed!");
+                discs.release(s);
+            }
+        }
+        discs.compact();
+
+        for (Enemy e : new ArrayList<>(enemies)) {
+            if (!e.isAlive()) {
+                listener.onEvent(e.getName() + " derezzed! +" + e.getXpReward() + " XP");
+                awardXP(e.getXpReward());
+                if (derezClearsJetwalls)
+                    arena.clearJetwalls(e.getId());
+                occupancy.remove(e);
+                moveAcc[e.getId()] = 0;
+            }
+        }
+        enemies.removeIf(e -> !e.isAlive());
+    }
+
+    private void throwPlayerDisc() {
+        if (player.getDiscsOwned() <= 0) {
+            listener.onEvent("No discs available!");
+            return;
+        }
+        if (discCooldownCounter > 0) {
+            listener.onEvent("Disc on cooldown!");
+            return;
+        }
+        player.useDisc();
+        discCooldownCounter = DISC_COOLDOWN_TICKS;
+        Position gp = getPlayerGridPos();
+        discs.add(gp.row, gp.col, playerDirection, PLAYER_OWNER);
+        listener.onEvent("Disc thrown!");
+    }
+
+    private void throwEnemyDisc(Enemy enemy) {
+        Position p = enemy.getPosition();
+        discs.add(p.row, p.col, enemy.getDirection(), enemy.getId());
+    }
+
+    private void handlePlayerCollision(int gridRow, int gridCol, String message) {
+        listener.onPlayerCollision(gridRow, gridCol);
+        if (damagePlayer(-0.5))
+            listener.onEvent(message);
+        if (player.getLives() <= 0)
+            handlePlayerDeath();
+    }
+
+    // Any number of enemy discs in one tick count as one hit, under the same cooldown as collisions
+    private void handlePlayerDiscHit() {
+        if (damagePlayer(-1.0))
+            listener.onEvent("Hit by disc! -1 life");
+        if (player.getLives() <= 0)
+            handlePlayerDeath();
+    }
+
+    private void handlePlayerFallOff() {
+        player.changeLives(-player.getLives());
+        listener.onEvent("Fell off the Grid!");
+        handlePlayerDeath();
+    }
+
+    // Applies damage unless the player was hit within the last DAMAGE_COOLDOWN_TICKS
+    private boolean damagePlayer(double amount) {
+        if (damageCooldownCounter > 0)
+            return false;
+        damageCooldownCounter = DAMAGE_COOLDOWN_TICKS;
+        player.changeLives(amount);
+        return true;
+    }
+
+    private void checkPlayerEnemyCollision() {
+        Position gridPos = getPlayerGridPos();
+        for (int id = occupancy.firstOnCell(gridPos.row, gridPos.col); id != OccupancyGrid.NONE;
+                id = occupancy.nextOnCell(id)) {
+            Enemy enemy = occupancy.getEnemy(id);
+            if (!enemy.isAlive())
+                continue;
+
+            if (damagePlayer(-0.5)) {
+                enemy.hitJetwall();
+                listener.onEvent("Collision with " + enemy.getName() + "!");
+
+                if (!enemy.isAlive()) {
+                    listener.onEvent(enemy.getName() + " derezzed!");
+                    awardXP(enemy.getXpReward());
+                }
+            }
+        }
+    }
+
+    private void awardXP(int xpAmount) {
+        int oldLvl = player.getLevel();
+        player.gainXp(xpAmount);
+        score += xpAmount;
+        listener.onXpAwarded(xpAmount);
+        if (player.getLevel() > oldLvl)
+            listener.onLevelUp(player.getLevel());
+    }
+
+    private void checkGameConditions() {
+        if (enemies.stream().noneMatch(Enemy::isAlive))
+            handleRoundWin();
+        if (player.getLives() <= 0)
+            handlePlayerDeath();
+    }
+
+    private void handleRoundWin() {
+        if (status != Status.RUNNING)
+            return;
+        status = Status.ROUND_WON;
+        int roundBonus = roundNumber * 100;
+        awardXP(roundBonus);
+        listener.onEvent("ROUND " + roundNumber + " COMPLETE!");
+        listener.onEvent("Bonus: +" + roundBonus + " XP");
+        listener.onRoundWin(roundBonus);
+    }
+
+    private void handlePlayerDeath() {
+        if (status != Status.RUNNING)
+            return;
+        status = Status.PLAYER_DEAD;
+        listener.onEvent("DEREZZED!");
+        listener.onPlayerDeath();
+    }
+
+    private Position getPlayerGridPos() {
+        return new Position((int) (playerPixelY / TILE_SIZE), (int) (playerPixelX / TILE_SIZE));
+    }
+
+    // --- Getters ---
+
+    public Arena getArena() {
+        return arena;
+    }
+
+    public Characters getPlayer() {
+        return player;
+    }
+
+    public PlayerInput getInput() {
+        return input;
+    }
+
+    public List<Enemy> getEnemies() {
+        return Collections.unmodifiableList(enemies);
+    }
+
+    /** Player distances as of the latest tick (updated on demand). */
+    public DistanceField getPlayerDistances() {
+        return aiContext.getPlayerDistances();
+    }
+
+    /** Discs in flight, resting or glowing out; read-only outside the simulation. */
+    public DiscPool getDiscs() {
+        return discs;
+    }
+
+    // Who is on which cell; read-only, for SimulationHarness's checks
+    OccupancyGrid getOccupancy() {
+        return occupancy;
+    }
+
+    /** The live discs as views, in throw order (a new list each call; prefer getDiscs). */
+    public List<Disc> getActiveDiscs() {
+        List<Disc> list = new ArrayList<>(discs.size());
+        for (int i = 0; i < discs.size(); i++)
+            list.add(discs.view(discs.slotAt(i)));
+        return Collections.unmodifiableList(list);
+    }
+
+    public double getPlayerPixelX() {
+        return playerPixelX;
+    }
+
+    public double getPlayerPixelY() {
+        return playerPixelY;
+    }
+
+    public double getCurrentAngle() {
+        return currentAngle;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public Direction getPlayerDirection() {
+        return playerDirection;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    /** XP earned during this round (kills + round bonus). */
+    public int getScore() {
+        return score;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public String getEnemyFile() {
+        return enemyFile;
+    }
+
+    /** Enemies requested at construction (before any died). */
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /** Seed the round was created with. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Random stream for cosmetic effects in the view (camera shake). Split off
+     * the match RNG, so drawing from it never shifts the game's own stream.
+     * Use from the rendering thread only.
+     */
+    public SplittableRandom getViewRandom() {
+        return viewRandom;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+}
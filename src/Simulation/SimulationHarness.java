@@ -0,0 +1,171 @@
+package src.Simulation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import src.Arena.Arena;
+import src.Arena.OccupancyGrid;
+import src.Characters.CharacterLoader;
+import src.Characters.Characters;
+import src.Enemy.Direction;
+import src.Enemy.Enemy;
+import src.Enemy.Position;
+
+/**
+ * Headless check of the simulation: plays seeded rounds with a player that
+ * turns and throws discs at random, checks the state after every tick and
+ * then plays each round back from its replay.
+ *
+ * Per tick it checks that the status agrees with the player's lives and the
+ * enemies left, that every listed enemy is alive, in bounds, off the walls
+ * and registered on its cell in the occupancy grid, and that the grid has the
+ * player on the arena's player cell. At the end of a round the replay is
+ * written to memory, read back and fast-forwarded, and must finish where the
+ * round did. Rounds alternate between deterministic search and the
+ * time budget, so replays both with and without recorded enemy moves are
+ * covered.
+ *
+ * Run from the project root: java src.Simulation.SimulationHarness [rounds] [maxTicks]
+ * Exits with status 1 if anything failed.
+ */
+public class SimulationHarness {
+    private static final String[] ARENAS = { "ClassicGrid", "NeonMaze", "OpenFrontier", "Procedural" };
+    private static final String[] DIFFICULTIES = { "EASY", "MEDIUM", "HARD", "IMPOSSIBLE" };
+    private static final int MAX_REPORTED = 5; // failures printed per round
+
+    private int failures, reported;
+
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 3000;
+
+        SimulationHarness harness = new SimulationHarness();
+        long ticks = 0;
+        int replaysMatched = 0;
+        for (int round = 0; round < rounds; round++) {
+            // a fresh copy each round: the simulation spends the player's lives
+            ArrayList<Characters> characters = CharacterLoader.loadCharacters("Characters.txt");
+            if (characters == null || characters.isEmpty()) {
+                System.out.println("Characters.txt not found on the classpath");
+                System.exit(1);
+            }
+            long seed = round;
+            Arena arena = new Arena(ARENAS[round % ARENAS.length], seed);
+            Simulation sim = new Simulation(arena, characters.get(round % characters.size()),
+                    DIFFICULTIES[round / ARENAS.length % DIFFICULTIES.length], 1 + round % 3,
+                    Simulation.DEFAULT_ENEMY_FILE, 4 + round % 5, seed);
+            sim.setDeterministicSearch(round % 2 == 0);
+            ReplayRecorder recorder = new ReplayRecorder(sim);
+            sim.setRecorder(recorder);
+
+            harness.reported = 0;
+            SplittableRandom rnd = new SplittableRandom(seed);
+            Direction[] dirs = Direction.values();
+            while (sim.isRunning() && sim.getTick() < maxTicks) {
+                if (rnd.nextInt(20) == 0) {
+                    sim.getInput().stop();
+                    sim.getInput().press(dirs[rnd.nextInt(dirs.length)]);
+                }
+                if (rnd.nextInt(90) == 0)
+                    sim.getInput().requestDiscThrow();
+                sim.tick();
+                harness.checkTick(sim);
+            }
+            ticks += sim.getTick();
+
+            boolean matched = harness.checkReplay(sim, recorder.finish());
+            if (matched)
+                replaysMatched++;
+            System.out.printf("round %2d  %-12s %-10s %-13s %4d ticks  score %5d  replay %s%n", round,
+                    arena.getName(), sim.getDifficulty(), sim.getStatus(), sim.getTick(), sim.getScore(),
+                    matched ? "ok" : "DIVERGED");
+        }
+
+        System.out.printf("%d rounds, %d ticks, %d of %d replays matched, %d failed checks%n", rounds, ticks,
+                replaysMatched, rounds, harness.failures);
+        if (harness.failures > 0)
+            System.exit(1);
+    }
+
+    /* ================= CHECKS ================= */
+
+    private void checkTick(Simulation sim) {
+        Arena arena = sim.getArena();
+        OccupancyGrid occupancy = sim.getOccupancy();
+        long tick = sim.getTick();
+
+        boolean anyAlive = false;
+        for (Enemy e : sim.getEnemies()) {
+            Position p = e.getPosition();
+            if (!e.isAlive()) {
+                fail(tick, e.getName() + " is dead but still listed");
+                continue;
+            }
+            anyAlive = true;
+            if (!arena.inBounds(p.row, p.col)) {
+                fail(tick, e.getName() + " is out of bounds at " + p.row + "," + p.col);
+                continue;
+            }
+            if (arena.isWall(p.row, p.col))
+                fail(tick, e.getName() + " is inside a wall at " + p.row + "," + p.col);
+            if (!onCell(occupancy, e, p.row, p.col))
+                fail(tick, e.getName() + " is not on its occupancy cell " + p.row + "," + p.col);
+        }
+        if (!occupancy.isPlayerAt(arena.getPlayerRow(), arena.getPlayerCol()))
+            fail(tick, "occupancy lost the player at " + arena.getPlayerRow() + "," + arena.getPlayerCol());
+
+        double lives = sim.getPlayer().getLives();
+        switch (sim.getStatus()) {
+            case RUNNING -> {
+                if (lives <= 0)
+                    fail(tick, "still running with " + lives + " lives");
+                if (!anyAlive)
+                    fail(tick, "still running with no enemies left");
+            }
+            case PLAYER_DEAD -> {
+                if (lives > 0)
+                    fail(tick, "player dead with " + lives + " lives");
+            }
+            case ROUND_WON -> {
+                if (anyAlive)
+                    fail(tick, "round won with enemies left");
+            }
+        }
+    }
+
+    private static boolean onCell(OccupancyGrid occupancy, Enemy e, int row, int col) {
+        for (int id = occupancy.firstOnCell(row, col); id != OccupancyGrid.NONE; id = occupancy.nextOnCell(id)) {
+            if (occupancy.getEnemy(id) == e)
+                return true;
+        }
+        return false;
+    }
+
+    // Write, read back and play the replay; true if playback ends where the round did
+    private boolean checkReplay(Simulation sim, Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.write(out);
+        Replay read = Replay.read(new ByteArrayInputStream(out.toByteArray()));
+        if (read.getStreamSize() != replay.getStreamSize() || read.getSeed() != replay.getSeed())
+            fail(sim.getTick(), "replay changed on the way through the file format");
+
+        ReplayPlayer player = new ReplayPlayer(read);
+        player.fastForward(Long.MAX_VALUE);
+        Simulation copy = player.getSimulation();
+        if (!player.matchesRecording()) {
+            fail(sim.getTick(), "replay ended at tick " + copy.getTick() + " " + copy.getStatus() + " score "
+                    + copy.getScore() + ", round at " + sim.getTick() + " " + sim.getStatus() + " score "
+                    + sim.getScore());
+            return false;
+        }
+        return true;
+    }
+
+    private void fail(long tick, String message) {
+        failures++;
+        if (reported++ < MAX_REPORTED)
+            System.out.println("  tick " + tick + ": " + message);
+    }
+}
@@ -0,0 +1,43 @@
+package src.Simulation;
+
+import src.Enemy.Enemy;
+
+/**
+ * Callbacks fired by {@link Simulation} while a tick is being processed.
+ * Every method is a no-op by default so headless runs can ignore them.
+ *
+ * NOTE: callbacks run on whichever thread calls {@link Simulation#tick()}.
+ */
+public interface SimulationListener {
+
+    SimulationListener NONE = new SimulationListener() {
+    };
+
+    /** Short human readable message (HUD event log). */
+    default void onEvent(String message) {
+    }
+
+    /** Player bumped into a wall or jetwall at the given grid cell. */
+    default void onPlayerCollision(int gridRow, int gridCol) {
+    }
+
+    /** XP was added to the player (kills, round bonus). */
+    default void onXpAwarded(int amount) {
+    }
+
+    /** Player reached a new level. */
+    default void onLevelUp(int newLevel) {
+    }
+
+    /** All enemies are gone; bonus XP has already been awarded. */
+    default void onRoundWin(int roundBonus) {
+    }
+
+    /** Player ran out of lives or fell off the grid. */
+    default void onPlayerDeath() {
+    }
+
+    /** An enemy moved one cell; it is already at its new position and direction. */
+    default void onEnemyMoved(Enemy enemy) {
+    }
+}
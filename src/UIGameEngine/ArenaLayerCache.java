@@ -0,0 +1,181 @@
+package src.UIGameEngine;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import src.Arena.Arena;
+
+/**
+ * Pre-rendered arena tiles.
+ *
+ * The floor and walls never change during a round, so they are drawn once into
+ * display-compatible images instead of issuing two fill/draw calls per cell
+ * every frame. The arena is split into square chunks so very large arenas only
+ * keep the chunks around the camera in memory (least recently used chunks are
+ * dropped and rebuilt from the grid if they come back into view). Jetwalls are
+ * stamped cell by cell onto a translucent overlay per chunk as the arena's
+ * change log reports them.
+ *
+ * Not thread-safe; like {@link WorldRenderer}, which drives it, it can run on
+ * any single thread (the EDT or the render thread of {@link RenderCanvas}).
+ * Chunks and refreshed cells are read from the live arena grid while the game
+ * thread keeps changing it, so a cell can briefly show a jetwall from a later
+ * tick or miss one laid mid-read. Every such change is also in the arena's
+ * change log, and the catch-up in WorldRenderer.drawArena refreshes those
+ * cells on a later frame.
+ */
+class ArenaLayerCache {
+    static final int CHUNK_TILES = 32;
+    private static final int MAX_CHUNKS = 64;
+
+    private static final Color FLOOR_FILL = new Color(10, 10, 20);
+    private static final Color FLOOR_EDGE = new Color(30, 30, 50);
+    private static final Color WALL_FILL = new Color(40, 40, 60);
+    private static final Color WALL_EDGE = new Color(60, 60, 80);
+    private static final Color JETWALL_FILL = new Color(200, 0, 200);
+    private static final Color JETWALL_EDGE = new Color(255, 100, 255);
+
+    private static class Chunk {
+        BufferedImage base; // floor + walls, opaque
+        BufferedImage overlay; // jetwalls, created on first stamp
+    }
+
+    private final int tileSize;
+    private Arena arena;
+    private GraphicsConfiguration gc;
+    private final Map<Integer, Chunk> chunks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Chunk> eldest) {
+            return size() > MAX_CHUNKS;
+        }
+    };
+
+    ArenaLayerCache(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /** Switch to a new arena (new round); drops every cached chunk. */
+    void setArena(Arena arena) {
+        this.arena = arena;
+        chunks.clear();
+    }
+
+    /** Graphics configuration of the target component (null = offscreen default). */
+    void setGraphicsConfiguration(GraphicsConfiguration gc) {
+        if (gc != this.gc) {
+            this.gc = gc;
+            chunks.clear();
+        }
+    }
+
+    /** Draws every chunk overlapping the given (inclusive) tile range. */
+    void draw(Graphics2D g2d, int firstRow, int lastRow, int firstCol, int lastCol) {
+        if (arena == null)
+            return;
+        int chunkSpan = CHUNK_TILES * tileSize;
+        for (int cr = firstRow / CHUNK_TILES; cr <= lastRow / CHUNK_TILES; cr++) {
+            for (int cc = firstCol / CHUNK_TILES; cc <= lastCol / CHUNK_TILES; cc++) {
+                Chunk chunk = getChunk(cr, cc);
+                int x = cc * chunkSpan, y = cr * chunkSpan;
+                g2d.drawImage(chunk.base, x, y, null);
+                if (chunk.overlay != null)
+                    g2d.drawImage(chunk.overlay, x, y, null);
+            }
+        }
+    }
+
+    /** Cell (row, col) changed; re-stamp its overlay if its chunk is cached. */
+    void refreshCell(int row, int col) {
+        if (arena == null)
+            return;
+        Chunk chunk = chunks.get(chunkKey(row / CHUNK_TILES, col / CHUNK_TILES));
+        if (chunk == null)
+            return; // not cached: picked up from the grid when the chunk is built
+        if (arena.isJetwall(row, col))
+            stampJetwall(chunk, row, col);
+        else if (chunk.overlay != null)
+            clearOverlayCell(chunk, row, col);
+    }
+
+    private Chunk getChunk(int cr, int cc) {
+        int key = chunkKey(cr, cc);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = buildChunk(cr, cc);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    private int chunkKey(int cr, int cc) {
+        int across = (arena.getCols() + CHUNK_TILES - 1) / CHUNK_TILES;
+        return cr * across + cc;
+    }
+
+    private Chunk buildChunk(int cr, int cc) {
+        int r0 = cr * CHUNK_TILES, c0 = cc * CHUNK_TILES;
+        int r1 = Math.min(arena.getRows(), r0 + CHUNK_TILES);
+        int c1 = Math.min(arena.getCols(), c0 + CHUNK_TILES);
+
+        Chunk chunk = new Chunk();
+        chunk.base = createImage((c1 - c0) * tileSize, (r1 - r0) * tileSize, Transparency.OPAQUE);
+        Graphics2D g = chunk.base.createGraphics();
+        for (int r = r0; r < r1; r++) {
+            for (int c = c0; c < c1; c++) {
+                int x = (c - c0) * tileSize, y = (r - r0) * tileSize;
+                boolean wall = arena.isWall(r, c);
+                g.setColor(wall ? WALL_FILL : FLOOR_FILL);
+                g.fillRect(x, y, tileSize, tileSize);
+                g.setColor(wall ? WALL_EDGE : FLOOR_EDGE);
+                g.drawRect(x, y, tileSize, tileSize);
+            }
+        }
+        g.dispose();
+
+        for (int r = r0; r < r1; r++) {
+            for (int c = c0; c < c1; c++) {
+                if (arena.isJetwall(r, c))
+                    stampJetwall(chunk, r, c);
+            }
+        }
+        return chunk;
+    }
+
+    private void stampJetwall(Chunk chunk, int row, int col) {
+        if (chunk.overlay == null)
+            chunk.overlay = createImage(chunk.base.getWidth(), chunk.base.getHeight(), Transparency.TRANSLUCENT);
+        int x = (col % CHUNK_TILES) * tileSize, y = (row % CHUNK_TILES) * tileSize;
+        Graphics2D g = chunk.overlay.createGraphics();
+        g.clipRect(x, y, tileSize, tileSize); // neighbours cover the right/bottom edge in the base layer too
+        g.setColor(JETWALL_FILL);
+        g.fillRect(x, y, tileSize, tileSize);
+        g.setColor(JETWALL_EDGE);
+        g.drawRect(x, y, tileSize, tileSize);
+        g.dispose();
+    }
+
+    private void clearOverlayCell(Chunk chunk, int row, int col) {
+        int x = (col % CHUNK_TILES) * tileSize, y = (row % CHUNK_TILES) * tileSize;
+        Graphics2D g = chunk.overlay.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(x, y, tileSize, tileSize);
+        g.dispose();
+    }
+
+    private BufferedImage createImage(int w, int h, int transparency) {
+        if (gc != null)
+            return gc.createCompatibleImage(w, h, transparency);
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(w, h, transparency);
+        }
+        return new BufferedImage(w, h,
+                transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+}
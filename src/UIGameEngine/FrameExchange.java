@@ -0,0 +1,42 @@
+package src.UIGameEngine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free triple buffer of {@link FrameSnapshot}s between one producer (the
+ * game thread) and one consumer (the EDT or the render thread).
+ *
+ * The producer fills its back frame and publishes it by swapping it with the
+ * shared middle slot; the consumer takes the middle slot by swapping in the
+ * frame it has finished drawing. Each side only ever touches the frame it
+ * holds, so neither waits for the other: the simulation never blocks on a slow
+ * paint, and the renderer always gets the most recent complete frame (frames
+ * published in between are simply skipped).
+ */
+final class FrameExchange {
+    private final AtomicReference<FrameSnapshot> middle = new AtomicReference<>(new FrameSnapshot());
+    private FrameSnapshot back = new FrameSnapshot(); // producer side
+    private FrameSnapshot front = new FrameSnapshot(); // consumer side
+    private long published; // producer side
+
+    /** The frame to fill next (producer only). */
+    FrameSnapshot back() {
+        return back;
+    }
+
+    /** Publishes the filled back frame and takes a free one in its place (producer only). */
+    void publish() {
+        back.sequence = ++published;
+        back = middle.getAndSet(back); // volatile swap: the frame's contents happen-before the reader's get
+    }
+
+    /**
+     * Latest published frame, or null before the first one (consumer only).
+     * Stays valid until the next call.
+     */
+    FrameSnapshot latest() {
+        if (middle.get().sequence > front.sequence)
+            front = middle.getAndSet(front);
+        return front.sequence == 0 ? null : front;
+    }
+}
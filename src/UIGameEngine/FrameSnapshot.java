@@ -0,0 +1,164 @@
+package src.UIGameEngine;
+
+import java.util.Arrays;
+import java.util.List;
+import src.Arena.Arena;
+import src.Disc.DiscPool;
+import src.Enemy.Direction;
+import src.Enemy.Enemy;
+import src.Enemy.Position;
+import src.Simulation.Simulation;
+
+/**
+ * Everything the renderer needs to draw one frame, copied out of the
+ * simulation on the game thread right after an update.
+ *
+ * Frames are recycled through a {@link FrameExchange}: the game thread fills
+ * one, publishes it, and from then on it is read-only until the renderer hands
+ * it back. Arrays only grow, so steady-state capture allocates nothing.
+ * Positions are world pixels (centre of the sprite) and entity lists are
+ * flattened into parallel arrays; only the first xxxCount entries are valid.
+ *
+ * The arena grid itself is not copied: the renderer pulls the arena's change
+ * log up to arenaVersion.
+ */
+final class FrameSnapshot {
+    long sequence; // set by FrameExchange.publish, 0 = never published
+    long tick;
+    long capturedNanos; // System.nanoTime() when the frame was captured
+    boolean paused;
+
+    Arena arena;
+    long arenaVersion;
+
+    // Player, before and after the last update (interpolated by the renderer)
+    String playerName;
+    double prevPlayerX, prevPlayerY, playerX, playerY, playerAngle;
+
+    // Living enemies
+    int enemyCount;
+    int[] enemyRow = new int[16], enemyCol = new int[16];
+    double[] enemyAngle = new double[16];
+    String[] enemyName = new String[16];
+
+    // Discs in flight or lying on the floor
+    int discCount;
+    double[] discX = new double[16], discY = new double[16];
+    boolean[] discActive = new boolean[16], discEnemyOwned = new boolean[16];
+    int[] discGlowRow = new int[16], discGlowCol = new int[16]; // -1: no collision glow
+    float[] discGlow = new float[16];
+
+    // Cycle trails (player first, then enemies), oldest first within each;
+    // trailColor indexes the renderer's trail palette
+    int trailCount;
+    double[] trailX = new double[64], trailY = new double[64];
+    double[] trailAngle = new double[64], trailVelocity = new double[64];
+    float[] trailLife = new float[64];
+    byte[] trailColor = new byte[64];
+
+    // Player collision flash (glow 0..1, 0 = none) and camera shake in pixels
+    int collisionRow, collisionCol;
+    float collisionGlow;
+    double shake;
+
+    /**
+     * Overwrites this frame with the simulation as it is now, except the trail
+     * (see {@link #setTrailCount}). Must run on the thread that ticks it.
+     */
+    void capture(Simulation sim, boolean paused, double prevPlayerX, double prevPlayerY, Position collisionPos,
+            float collisionGlow, double shake) {
+        this.tick = sim.getTick();
+        this.capturedNanos = System.nanoTime();
+        this.paused = paused;
+        this.arena = sim.getArena();
+        this.arenaVersion = arena.getVersion();
+
+        this.playerName = sim.getPlayer().getName();
+        this.prevPlayerX = prevPlayerX;
+        this.prevPlayerY = prevPlayerY;
+        this.playerX = sim.getPlayerPixelX();
+        this.playerY = sim.getPlayerPixelY();
+        this.playerAngle = sim.getCurrentAngle();
+
+        List<Enemy> enemies = sim.getEnemies();
+        if (enemies.size() > enemyRow.length) {
+            int n = enemies.size();
+            enemyRow = Arrays.copyOf(enemyRow, n);
+            enemyCol = Arrays.copyOf(enemyCol, n);
+            enemyAngle = Arrays.copyOf(enemyAngle, n);
+            enemyName = Arrays.copyOf(enemyName, n);
+        }
+        int alive = 0;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            Enemy e = enemies.get(i);
+            if (!e.isAlive())
+                continue;
+            Position p = e.getPosition();
+            enemyRow[alive] = p.row;
+            enemyCol[alive] = p.col;
+            enemyAngle[alive] = angleOf(e.getDirection());
+            enemyName[alive] = e.getName();
+            alive++;
+        }
+        enemyCount = alive;
+
+        DiscPool discs = sim.getDiscs();
+        int tile = Simulation.TILE_SIZE;
+        discCount = discs.size();
+        if (discCount > discX.length) {
+            int n = Math.max(discCount, discX.length * 2);
+            discX = Arrays.copyOf(discX, n);
+            discY = Arrays.copyOf(discY, n);
+            discActive = Arrays.copyOf(discActive, n);
+            discEnemyOwned = Arrays.copyOf(discEnemyOwned, n);
+            discGlowRow = Arrays.copyOf(discGlowRow, n);
+            discGlowCol = Arrays.copyOf(discGlowCol, n);
+            discGlow = Arrays.copyOf(discGlow, n);
+        }
+        for (int i = 0; i < discCount; i++) {
+            int s = discs.slotAt(i);
+            boolean active = discs.isActive(s);
+            discActive[i] = active;
+            discEnemyOwned[i] = discs.getOwnerId(s) != Simulation.PLAYER_OWNER;
+            double row = active ? discs.getSmoothRow(s) : discs.getRow(s);
+            double col = active ? discs.getSmoothCol(s) : discs.getCol(s);
+            discX[i] = col * tile + tile / 2.0;
+            discY[i] = row * tile + tile / 2.0;
+            boolean glow = discs.hasCollisionGlow(s);
+            discGlowRow[i] = glow ? discs.getGlowRow(s) : -1;
+            discGlowCol[i] = glow ? discs.getGlowCol(s) : -1;
+            discGlow[i] = glow ? discs.getCollisionGlowIntensity(s) : 0f;
+        }
+
+        this.collisionRow = collisionPos == null ? -1 : collisionPos.row;
+        this.collisionCol = collisionPos == null ? -1 : collisionPos.col;
+        this.collisionGlow = collisionPos == null ? 0f : collisionGlow;
+        this.shake = shake;
+    }
+
+    /** Sets the number of trail points and makes room for them; the caller fills trailX.. trailColor. */
+    void setTrailCount(int count) {
+        if (count > trailX.length) {
+            int n = Math.max(count, trailX.length * 2);
+            trailX = Arrays.copyOf(trailX, n);
+            trailY = Arrays.copyOf(trailY, n);
+            trailAngle = Arrays.copyOf(trailAngle, n);
+            trailVelocity = Arrays.copyOf(trailVelocity, n);
+            trailLife = Arrays.copyOf(trailLife, n);
+            trailColor = Arrays.copyOf(trailColor, n);
+        }
+        trailCount = count;
+    }
+
+    /** Sprite rotation for a grid direction (sprites face right at 0). */
+    static double angleOf(Direction dir) {
+        if (dir == null)
+            return 0.0;
+        return switch (dir) {
+            case UP -> -Math.PI / 2;
+            case DOWN -> Math.PI / 2;
+            case LEFT -> Math.PI;
+            default -> 0.0;
+        };
+    }
+}
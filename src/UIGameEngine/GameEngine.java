@@ -3,74 +3,59 @@ package src.UIGameEngine;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.geom.AffineTransform;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.util.SplittableRandom;
 import src.Arena.Arena;
 import src.Characters.Characters;
-import src.Disc.Disc;
 import src.Enemy.Direction;
 import src.Enemy.Enemy;
 import src.Enemy.EnemyLoader;
 import src.Enemy.Position;
+import src.Simulation.ReplayRecorder;
+import src.Simulation.Simulation;
+import src.Simulation.SimulationListener;
 import src.leaderboardstory.Leaderboard;
 import src.leaderboardstory.SaveSystem;
 import src.leaderboardstory.StoryManager;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import javax.imageio.ImageIO;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
- * GameEngine (trimmed/cleaned) — integrates collision glow + HUD flash + shake.
+ * GameEngine — Swing view/input adapter around {@link Simulation}.
+ *
+ * All game rules live in the headless Simulation; this frame owns the window,
+ * translates key events into PlayerInput and drives the tick loop. After every
+ * tick the game thread publishes a {@link FrameSnapshot} through a lock-free
+ * {@link FrameExchange}; the view only ever draws snapshots (collision glow +
+ * HUD flash + shake, player trail), either passively in a Swing panel or
+ * actively on a {@link RenderCanvas} render thread (see
+ * {@link #setActiveRendering}). HUD updates are posted to the EDT.
  *
  * NOTE: depends on your project's other classes:
- * Enemy, EnemyLoader, Disc, Position, Direction, Arena, StoryManager,
+ * Simulation, Enemy, Disc, Position, Direction, Arena, StoryManager,
  * Leaderboard, SaveSystem, MainMenu
  */
-public class GameEngine extends JFrame implements KeyListener {
+public class GameEngine extends JFrame implements KeyListener, SimulationListener {
 
     private enum GameState {
         PLAYING, PAUSED, ROUND_WIN, GAME_OVER, CUTSCENE
     }
 
     private Arena arena;
-    private Characters player;
-    private double playerPixelX, playerPixelY;
-    private Direction playerDirection;
-
-    private final List<Enemy> enemies = new ArrayList<>();
-    private final List<Disc> activeDiscs = new ArrayList<>();
-    private final Map<Enemy, Double> enemyMoveAcc = new HashMap<>();
-
-    // Movement / smoothing
-    private double currentAngle = 0;
-    private double targetAngle = 0;
-    private double velocity = 0;
-    private final List<TrailPoint> playerTrail = new ArrayList<>();
-
-    // Track last jetwall grid position to help keep the trail continuous
-    private int lastJetwallRow = -1;
-    private int lastJetwallCol = -1;
-
-    // Track previous player tile (used to place jetwall on tile left)
-    private int prevPlayerGridRow = -1;
-    private int prevPlayerGridCol = -1;
-
-    private BufferedImage kevinSprite;
-    private BufferedImage tronSprite;
-    private BufferedImage enemyClu;
-    private BufferedImage enemyRinzler;
-    private BufferedImage enemySark;
-    private BufferedImage enemyKoura;
-
-    private static class TrailPoint {
-        double x, y, angle, velocity;
-        float life = 1.0f;
-    }
+    private Simulation simulation;
+    private final Characters player;
+
+    // Visual trails behind the player's cycle (one point per moving tick) and
+    // every enemy cycle (one point per cell moved), game thread only
+    private static final int PLAYER_TRAIL_CAPACITY = 64;
+    private static final int TRAIL_TICKS = (int) Math.ceil(1 / TrailBuffer.FADE_PER_TICK) + 1;
+    private final TrailBuffer playerTrail = new TrailBuffer(PLAYER_TRAIL_CAPACITY);
+    private TrailBuffer enemyTrails = new TrailBuffer(PLAYER_TRAIL_CAPACITY);
+
+    // Trail lifetime in ticks for new rounds (0 = jetwalls are permanent)
+    private static volatile int jetwallLifetime = Integer.getInteger("foptron.jetwallLifetime", 0);
+
+    // Ricochet bounces for discs thrown in new rounds (0 = discs stop at walls)
+    private static volatile int discBounces = Integer.getInteger("foptron.discBounces", 0);
 
     // Collision visual effect
     private int collisionGlowFrames = 0;
@@ -79,58 +64,82 @@ public class GameEngine extends JFrame implements KeyListener {
     private static final double COLLISION_SHAKE_MAX = 6.0;
     private Position collisionGridPos = null; // where the last collision happened (grid coords)
 
-    // UI
+    // UI: one of gamePanel (passive, repainted on the EDT) or renderCanvas
+    // (active, own render thread) is the view
+    private static volatile boolean activeRendering = Boolean.getBoolean("foptron.activeRendering");
+    private final WorldRenderer worldRenderer = new WorldRenderer(Simulation.TILE_SIZE);
     private final GamePanel gamePanel;
+    private final RenderCanvas renderCanvas;
+    private final Component view;
+    private final FrameExchange frames = new FrameExchange(); // game thread -> view
     private final HUDPanel hudPanel;
+    private int hudLives = -1, hudXp, hudLevel, hudDiscs, hudNextLevel; // last stats posted to the HUD
 
     // Game state
-    private GameState gameState;
-    private Thread gameThread;
-    private volatile boolean running = false;
+    private volatile GameState gameState; // set by the EDT (pause) and the game thread
+    private GameLoop loop;
     private int roundNumber = 1;
     private int totalScore = 0;
     private String difficulty;
 
     // Timing
-    private static final int FPS = 60;
-    private static final double NS_PER_FRAME = 1_000_000_000.0 / FPS;
+    private static final int FPS = Simulation.TICKS_PER_SECOND;
 
-    // Controls
-    private final boolean[] keysPressed = new boolean[256];
-    private boolean persistentMove = false;
-    private double persistentTargetAngle = 0.0;
+    // Render interpolation: fraction of a tick since the last update, and the
+    // player position before that update
+    private volatile double renderAlpha;
+    private double prevPlayerX, prevPlayerY;
 
     // Tiles
-    private static final int tile_size = 15;
-    private static final int arena_pixel_size = Arena.SIZE * tile_size;
+    private static final int tile_size = Simulation.TILE_SIZE;
+    // Largest viewport (in tiles); bigger arenas scroll with the player
+    private static final int MAX_VIEW_TILES = Arena.DEFAULT_SIZE;
+
+    // Arena dimensions / enemy count used for every round
+    private final int arenaRows;
+    private final int arenaCols;
+    private final int enemyCount;
+
+    // Every round is recorded; the last one is written here when it ends
+    private static final Path REPLAY_FILE = Path.of("replays", "latest.replay");
+    private ReplayRecorder recorder;
+
+    // Match RNG: procedural arenas and every round's simulation are seeded from it
+    private final long matchSeed;
+    private final SplittableRandom matchRandom;
 
     // Other
     private final StoryManager storyManager;
 
-    // Cooldowns (kept but jetwall frame logic removed)
-    private int discCooldownCounter = 0;
-    private static final int DISC_COOLDOWN_FRAMES = 300;
-    private int jetwallPlaceCounter = 0;
-    private static final int JETWALL_PLACE_FRAME = 10;
-
     public GameEngine(Characters character, String arenaName) {
         this(character, arenaName, "EASY");
     }
 
     public GameEngine(Characters character, String arenaName, String difficulty) {
-        try {
-            this.kevinSprite = ImageIO.read(new File("res/Kevin/Kevin.png"));
-            this.tronSprite = ImageIO.read(new File("res/Tron/Tron.png"));
-            this.enemyClu = ImageIO.read(new File("res/Clu/Clu.png"));
-            this.enemyRinzler = ImageIO.read(new File("res/Rinzler/Rinzler.png"));
-            this.enemySark = ImageIO.read(new File("res/Sark/Sark.png"));
-            this.enemyKoura = ImageIO.read(new File("res/Koura/Koura.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this(character, arenaName, difficulty, Arena.DEFAULT_SIZE, EnemyLoader.DEFAULT_ENEMY_COUNT);
+    }
+
+    /**
+     * @param arenaSize  rows and columns of every arena (e.g. 1000 for very large maps)
+     * @param enemyCount enemies spawned per round
+     */
+    public GameEngine(Characters character, String arenaName, String difficulty, int arenaSize, int enemyCount) {
+        this(character, arenaName, difficulty, arenaSize, enemyCount, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @param seed match seed; with the same inputs every round plays out the
+     *             same way
+     */
+    public GameEngine(Characters character, String arenaName, String difficulty, int arenaSize, int enemyCount,
+            long seed) {
+        this.arenaRows = arenaSize;
+        this.arenaCols = arenaSize;
+        this.enemyCount = enemyCount;
+        this.matchSeed = seed;
+        this.matchRandom = new SplittableRandom(seed);
         this.player = character;
         this.difficulty = difficulty == null ? "EASY" : difficulty;
-        this.playerDirection = Direction.RIGHT;
 
         this.storyManager = new StoryManager("leaderboardstory/story.txt");
 
@@ -148,9 +157,18 @@ public class GameEngine extends JFrame implements KeyListener {
 
         initializeArena(arenaName);
 
-        gamePanel = new GamePanel();
-        gamePanel.setPreferredSize(new Dimension(arena_pixel_size, arena_pixel_size));
-        add(gamePanel, BorderLayout.CENTER);
+        if (activeRendering) {
+            gamePanel = null;
+            renderCanvas = new RenderCanvas(worldRenderer, frames::latest, displayRefreshRate(), FPS);
+            view = renderCanvas;
+        } else {
+            gamePanel = new GamePanel();
+            renderCanvas = null;
+            view = gamePanel;
+        }
+        view.setPreferredSize(new Dimension(Math.min(arenaCols, MAX_VIEW_TILES) * tile_size,
+                Math.min(arenaRows, MAX_VIEW_TILES) * tile_size));
+        add(view, BorderLayout.CENTER);
 
         hudPanel = new HUDPanel();
         add(hudPanel, BorderLayout.EAST);
@@ -159,18 +177,63 @@ public class GameEngine extends JFrame implements KeyListener {
         add(control, BorderLayout.SOUTH);
 
         addKeyListener(this);
-        gamePanel.addKeyListener(this);
+        view.addKeyListener(this);
         setFocusable(true);
-        gamePanel.setFocusable(true);
+        view.setFocusable(true);
 
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
+        if (renderCanvas != null)
+            renderCanvas.start(); // needs the peer, so only once the frame is visible
 
         startNewRound();
         startGameLoop();
     }
 
+    /**
+     * Draw with a {@link RenderCanvas} (BufferStrategy, own render thread)
+     * instead of repainting a Swing panel; applies to games created afterwards.
+     * Defaults to the foptron.activeRendering system property.
+     */
+    public static void setActiveRendering(boolean active) {
+        activeRendering = active;
+    }
+
+    public static boolean isActiveRendering() {
+        return activeRendering;
+    }
+
+    /**
+     * Make jetwalls expire this many ticks after they are laid (0 = permanent)
+     * from the next round on. Defaults to the foptron.jetwallLifetime system
+     * property.
+     */
+    public static void setJetwallLifetime(int ticks) {
+        if (ticks < 0)
+            throw new IllegalArgumentException("Jetwall lifetime must be >= 0: " + ticks);
+        jetwallLifetime = ticks;
+    }
+
+    public static int getJetwallLifetime() {
+        return jetwallLifetime;
+    }
+
+    /**
+     * Let discs ricochet off walls and jetwalls this many times (0 = off)
+     * from the next round on. Defaults to the foptron.discBounces system
+     * property.
+     */
+    public static void setDiscBounces(int bounces) {
+        if (bounces < 0)
+            throw new IllegalArgumentException("Disc bounces must be >= 0: " + bounces);
+        discBounces = bounces;
+    }
+
+    public static int getDiscBounces() {
+        return discBounces;
+    }
+
     private JPanel createControlPanel() {
         JPanel p = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 6));
         p.setBackground(Color.BLACK);
@@ -183,43 +246,34 @@ public class GameEngine extends JFrame implements KeyListener {
 
     private void initializeArena(String arenaName) {
         switch (arenaName) {
-            case "Arena 1" -> arena = new Arena("ClassicGrid");
-            case "Arena 2" -> arena = new Arena("NeonMaze");
-            case "Arena 3" -> arena = new Arena("OpenFrontier");
-            case "Random" -> arena = new Arena("Procedural", System.currentTimeMillis());
-            default -> arena = new Arena("ClassicGrid");
+            case "Arena 1" -> arena = new Arena("ClassicGrid", null, arenaRows, arenaCols);
+            case "Arena 2" -> arena = new Arena("NeonMaze", null, arenaRows, arenaCols);
+            case "Arena 3" -> arena = new Arena("OpenFrontier", null, arenaRows, arenaCols);
+            case "Random" -> arena = new Arena("Procedural", matchRandom.nextLong(), arenaRows, arenaCols);
+            default -> arena = new Arena("ClassicGrid", null, arenaRows, arenaCols);
         }
     }
 
     private void startNewRound() {
         gameState = GameState.PLAYING;
-        Position spawn = arena.getPlayerSpawn();
-        playerPixelX = spawn.col * tile_size + tile_size / 2.0;
-        playerPixelY = spawn.row * tile_size + tile_size / 2.0;
-        arena.setPlayerPosition(spawn);
-
-        // initialize prev player tile so the first move places a jetwall at spawn tile
-        prevPlayerGridRow = spawn.row;
-        prevPlayerGridCol = spawn.col;
-
-        velocity = 0;
-        currentAngle = 0;
-        targetAngle = 0;
+        simulation = new Simulation(arena, player, difficulty, roundNumber, Simulation.DEFAULT_ENEMY_FILE,
+                enemyCount, matchRandom.nextLong());
+        simulation.setListener(this);
+        simulation.setDerezClearsJetwalls(true); // a derezzed cycle takes its trail with it
+        simulation.setJetwallLifetime(jetwallLifetime);
+        simulation.setDiscBounces(discBounces);
+        prevPlayerX = simulation.getPlayerPixelX();
+        prevPlayerY = simulation.getPlayerPixelY();
+        recorder = new ReplayRecorder(simulation);
+        simulation.setRecorder(recorder);
         playerTrail.clear();
-
-        enemies.clear();
-        enemies.addAll(EnemyLoader.loadEnemies("src/Enemy/enemies.txt", difficulty, arena, Arena.SIZE, Arena.SIZE));
-        enemyMoveAcc.clear();
-        for (Enemy e : enemies)
-            enemyMoveAcc.put(e, 0.0);
-
-        activeDiscs.clear();
-        discCooldownCounter = 0;
+        enemyTrails = new TrailBuffer(Math.max(PLAYER_TRAIL_CAPACITY, simulation.getEnemies().size() * TRAIL_TICKS));
+        worldRenderer.setShakeRandom(simulation.getViewRandom());
 
         hudPanel.clearEvents();
         hudPanel.addEvent("Round " + roundNumber + " Start!");
         hudPanel.addEvent("Difficulty: " + difficulty);
-        hudPanel.addEvent("Enemies: " + enemies.size());
+        hudPanel.addEvent("Enemies: " + simulation.getEnemies().size());
 
         updateHUD();
 
@@ -228,409 +282,142 @@ public class GameEngine extends JFrame implements KeyListener {
         else if (roundNumber % 5 == 0)
             storyManager.playCutscene("ROUND_" + roundNumber);
 
-        gamePanel.repaint();
+        view.repaint();
     }
 
     private void startGameLoop() {
-        running = true;
-        gameThread = new Thread(() -> {
-            long last = System.nanoTime();
-            double delta = 0;
-            while (running) {
-                long now = System.nanoTime();
-                delta += (now - last) / NS_PER_FRAME;
-                last = now;
-
-                if (delta >= 1.0) {
-                    gameUpdate();
-                    gamePanel.repaint();
-                    delta--;
-                }
-                try {
-                    Thread.sleep(1);
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
+        stopGameLoop();
+        // the render canvas paces its own frames; the loop then only updates
+        int loopFps = renderCanvas != null ? 0 : displayRefreshRate();
+        loop = new GameLoop("GameLoop", FPS, loopFps, new GameLoop.Stage() {
+            @Override
+            public void update() {
+                gameUpdate();
             }
-        });
-        gameThread.start();
-    }
-
-    private void gameUpdate() {
-        if (gameState != GameState.PLAYING)
-            return;
-
-        processPlayerMovement();
-        updateTrail();
-        processEnemyMovement();
-        processDiscs();
-
-        if (discCooldownCounter > 0)
-            discCooldownCounter--;
-
-        checkGameConditions();
-
-        // collision effect decay
-        if (collisionGlowFrames > 0)
-            collisionGlowFrames--;
-        if (collisionShake > 0.05)
-            collisionShake *= 0.85;
-        else
-            collisionShake = 0.0;
-
-        updateHUD();
-    }
-
-    /**
-     * Main player movement + jetwall placement logic (tile-based).
-     *
-     * Replaced fragile frame-counter approach with per-tile placement:
-     * - place a jetwall on the tile the player just left (prevPlayerGridRow/Col)
-     * - if player skipped multiple tiles, fill the straight line of tiles between
-     * prev and current (excluding player's current tile).
-     */
-    private void processPlayerMovement() {
-        if (persistentMove)
-            targetAngle = persistentTargetAngle;
-        else {
-            if (keysPressed[KeyEvent.VK_W] || keysPressed[KeyEvent.VK_UP])
-                targetAngle = -Math.PI / 2;
-            else if (keysPressed[KeyEvent.VK_S] || keysPressed[KeyEvent.VK_DOWN])
-                targetAngle = Math.PI / 2;
-            else if (keysPressed[KeyEvent.VK_A] || keysPressed[KeyEvent.VK_LEFT])
-                targetAngle = Math.PI;
-            else if (keysPressed[KeyEvent.VK_D] || keysPressed[KeyEvent.VK_RIGHT])
-                targetAngle = 0;
-        }
-
-        // snap rotation for simpler responsiveness (optional)
-        currentAngle = targetAngle;
-
-        boolean isMoving = persistentMove ||
-                keysPressed[KeyEvent.VK_W] || keysPressed[KeyEvent.VK_UP] ||
-                keysPressed[KeyEvent.VK_S] || keysPressed[KeyEvent.VK_DOWN] ||
-                keysPressed[KeyEvent.VK_A] || keysPressed[KeyEvent.VK_LEFT] ||
-                keysPressed[KeyEvent.VK_D] || keysPressed[KeyEvent.VK_RIGHT];
-
-        double maxSpeed = 2.0 + player.getSpeed() * 0.3;
-        if (isMoving) {
-            velocity += 0.15;
-            if (velocity > maxSpeed)
-                velocity = maxSpeed;
-        } else {
-            velocity *= 0.92;
-            if (velocity < 0.1)
-                velocity = 0;
-        }
-
-        double newX = playerPixelX + Math.cos(currentAngle) * velocity;
-        double newY = playerPixelY + Math.sin(currentAngle) * velocity;
-
-        int gridRow = (int) (newY / tile_size);
-        int gridCol = (int) (newX / tile_size);
-
-        if (!arena.inBounds(gridRow, gridCol)) {
-            handlePlayerFallOff();
-            return;
-        }
-
-        if (arena.isWall(gridRow, gridCol)) {
-            handlePlayerWallCollision(gridRow, gridCol);
-            velocity = 0;
-            return;
-        }
 
-        if (arena.isJetwall(gridRow, gridCol)) {
-            handlePlayerJetwallCollision(gridRow, gridCol);
-            velocity = 0;
-            return;
-        }
-
-        // --- PLACE JETWALL(S) BASED ON TILE TRANSITION ---
-        // If previous tile known and player moved into a new tile, place jetwall on
-        // tile left.
-        if (prevPlayerGridRow != -1 && prevPlayerGridCol != -1) {
-            if (gridRow != prevPlayerGridRow || gridCol != prevPlayerGridCol) {
-                // place on the tile we left (prev)
-                if (arena.inBounds(prevPlayerGridRow, prevPlayerGridCol)) {
-                    // avoid placing on the player's current tile
-                    if (!(prevPlayerGridRow == gridRow && prevPlayerGridCol == gridCol)) {
-                        arena.placeJetwall(prevPlayerGridRow, prevPlayerGridCol);
-                        lastJetwallRow = prevPlayerGridRow;
-                        lastJetwallCol = prevPlayerGridCol;
-                    }
-                }
-
-                // fill intermediate tiles if we skipped tiles (line from prev to current),
-                // but do NOT overwrite the player's current tile.
-                int r = prevPlayerGridRow;
-                int c = prevPlayerGridCol;
-                while (r != gridRow || c != gridCol) {
-                    if (r < gridRow)
-                        r++;
-                    else if (r > gridRow)
-                        r--;
-                    if (c < gridCol)
-                        c++;
-                    else if (c > gridCol)
-                        c--;
-
-                    // break if we've reached the player's current tile
-                    if (r == gridRow && c == gridCol)
-                        break;
-
-                    if (arena.inBounds(r, c)) {
-                        arena.placeJetwall(r, c);
-                        lastJetwallRow = r;
-                        lastJetwallCol = c;
-                    } else {
-                        break;
-                    }
-                }
+            @Override
+            public void render(double alpha) {
+                renderAlpha = alpha;
+                view.repaint();
             }
-        }
-
-        // Update player pixel position & grid pos AFTER placing jetwalls
-        playerPixelX = newX;
-        playerPixelY = newY;
-
-        Position gridPos = new Position(gridRow, gridCol);
-        arena.setPlayerPosition(gridPos);
-        updatePlayerDirection();
-
-        // create visual trail points
-        if (velocity > 1.0) {
-            TrailPoint tp = new TrailPoint();
-            tp.x = playerPixelX;
-            tp.y = playerPixelY;
-            tp.angle = currentAngle;
-            tp.velocity = velocity;
-            playerTrail.add(tp);
-        }
-
-        // update prev player tile for next frame
-        prevPlayerGridRow = gridRow;
-        prevPlayerGridCol = gridCol;
-
-        checkPlayerEnemyCollision();
-    }
-
-    private void updateTrail() {
-        Iterator<TrailPoint> it = playerTrail.iterator();
-        while (it.hasNext()) {
-            TrailPoint tp = it.next();
-            tp.life -= 0.03f;
-            if (tp.life <= 0)
-                it.remove();
-        }
+        });
+        loop.start();
     }
 
-    private void updatePlayerDirection() {
-        double angle = currentAngle;
-        while (angle < 0)
-            angle += Math.PI * 2;
-        while (angle >= Math.PI * 2)
-            angle -= Math.PI * 2;
-
-        if (angle < Math.PI / 4 || angle >= 7 * Math.PI / 4)
-            playerDirection = Direction.RIGHT;
-        else if (angle < 3 * Math.PI / 4)
-            playerDirection = Direction.DOWN;
-        else if (angle < 5 * Math.PI / 4)
-            playerDirection = Direction.LEFT;
-        else
-            playerDirection = Direction.UP;
+    private void stopGameLoop() {
+        if (loop != null)
+            loop.stop();
     }
 
-    private Position getPlayerGridPos() {
-        return new Position((int) (playerPixelY / tile_size), (int) (playerPixelX / tile_size));
+    // Render at the monitor's rate (60 if unknown) so interpolation has frames to fill
+    private int displayRefreshRate() {
+        int hz = getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+        return hz == DisplayMode.REFRESH_RATE_UNKNOWN ? FPS : hz;
     }
 
-    private void processEnemyMovement() {
-        if (enemies == null || enemies.isEmpty())
-            return;
-        final double tilesPerFrameFactor = 1.0 / FPS;
-        for (Enemy enemy : new ArrayList<>(enemies)) {
-            if (!enemy.isAlive()) {
-                enemyMoveAcc.remove(enemy);
-                continue;
-            }
-            double acc = enemyMoveAcc.getOrDefault(enemy, 0.0);
-            acc += enemy.getSpeed() * tilesPerFrameFactor;
-
-            while (acc >= 1.0) {
-                Position old = new Position(enemy.getPosition().row, enemy.getPosition().col);
-                enemy.decideNextMove(arena);
-                Position newPos = enemy.getPosition();
-
-                if (arena.isWall(newPos.row, newPos.col) || arena.isJetwall(newPos.row, newPos.col)) {
-                    enemy.hitJetwall();
-                    enemy.getPosition().row = old.row;
-                    enemy.getPosition().col = old.col;
-                    if (!enemy.isAlive()) {
-                        hudPanel.addEvent(enemy.getName() + " derezzed by wall!");
-                        awardXP(enemy.getXpReward() / 2);
-                    }
-                    break;
-                } else {
-                    arena.placeJetwall(old.row, old.col);
-                    if (Math.random() < 0.02 * Math.min(enemy.getSpeed(), 5.0))
-                        throwEnemyDisc(enemy);
-                }
-
-                acc -= 1.0;
-                if (!enemy.isAlive()) {
-                    enemyMoveAcc.remove(enemy);
-                    break;
-                }
-            }
-            enemyMoveAcc.put(enemy, acc);
-        }
-        enemyMoveAcc.keySet().removeIf(e -> !enemies.contains(e));
-    }
+    private void gameUpdate() {
+        prevPlayerX = simulation.getPlayerPixelX();
+        prevPlayerY = simulation.getPlayerPixelY();
+        if (gameState == GameState.PLAYING) {
+            simulation.tick();
+            recordTrailPoint();
+            playerTrail.expire(simulation.getTick());
+            enemyTrails.expire(simulation.getTick());
 
-    private void processDiscs() {
-        Iterator<Disc> it = activeDiscs.iterator();
-        while (it.hasNext()) {
-            Disc d = it.next();
-            d.update(arena, player, (ArrayList<Enemy>) enemies);
+            // collision effect decay
+            if (collisionGlowFrames > 0)
+                collisionGlowFrames--;
+            if (collisionShake > 0.05)
+                collisionShake *= 0.85;
+            else
+                collisionShake = 0.0;
 
-            if (d.hasHitEnemy()) {
-                if (!d.hasCollisionGlow())
-                    it.remove();
-                continue;
-            }
-            if (d.isActive())
-                continue;
-            if (d.isCollected()) {
-                it.remove();
-                continue;
-            }
-
-            Position dp = d.getPosition();
-            Position pg = getPlayerGridPos();
-            if (dp.row == pg.row && dp.col == pg.col) {
-                if (d.getOwner() == null) {
-                    player.setDiscsOwned(player.getDiscsOwned() + 1);
-                    d.collect();
-                    hudPanel.addEvent("Disc reclaimed!");
-                    it.remove();
-                }
-            }
+            updateHUD();
         }
-
-        for (Enemy e : new ArrayList<>(enemies)) {
-            if (!e.isAlive()) {
-                hudPanel.addEvent(e.getName() + " derezzed! +" + e.getXpReward() + " XP");
-                awardXP(e.getXpReward());
-            }
-        }
-        enemies.removeIf(e -> !e.isAlive());
+        publishFrame();
     }
 
-    private void throwPlayerDisc() {
-        if (player.getDiscsOwned() <= 0) {
-            hudPanel.addEvent("No discs available!");
-            return;
-        }
-        if (discCooldownCounter > 0) {
-            hudPanel.addEvent("Disc on cooldown!");
-            return;
-        }
-        player.useDisc();
-        discCooldownCounter = DISC_COOLDOWN_FRAMES;
-        Position gp = getPlayerGridPos();
-        Disc d = new Disc(new Position(gp.row, gp.col), playerDirection, null);
-        activeDiscs.add(d);
-        hudPanel.addEvent("Disc thrown!");
+    // Copy what the view draws into the exchange's back frame and publish it
+    // (game thread only; the view never sees simulation state directly)
+    private void publishFrame() {
+        FrameSnapshot f = frames.back();
+        float glow = (float) collisionGlowFrames / (float) COLLISION_GLOW_FRAMES_MAX;
+        f.capture(simulation, gameState == GameState.PAUSED, prevPlayerX, prevPlayerY,
+                collisionGlowFrames > 0 ? collisionGridPos : null, glow, collisionShake);
+        int players = playerTrail.size();
+        f.setTrailCount(players + enemyTrails.size());
+        playerTrail.copyTo(f, 0, simulation.getTick());
+        enemyTrails.copyTo(f, players, simulation.getTick());
+        frames.publish();
     }
 
-    private void throwEnemyDisc(Enemy enemy) {
-        Disc d = new Disc(new Position(enemy.getPosition().row, enemy.getPosition().col), enemy.getDirection(), enemy);
-        activeDiscs.add(d);
+    // create visual trail points while the cycle is moving fast
+    private void recordTrailPoint() {
+        if (simulation.getVelocity() > 1.0)
+            playerTrail.add(simulation.getPlayerPixelX(), simulation.getPlayerPixelY(),
+                    simulation.getCurrentAngle(), simulation.getVelocity(), WorldRenderer.TRAIL_PLAYER,
+                    simulation.getTick());
     }
 
-    private void handlePlayerWallCollision(int gridRow, int gridCol) {
-        // visual + audio hooks
-        triggerCollisionEffects(gridRow, gridCol);
-        boolean damageApplied = player.updateLives(-0.5);
-
-        if (damageApplied) {
-            hudPanel.addEvent("Hit wall! -0.5 lives");
-        }
-        if (player.getLives() <= 0)
-            handlePlayerDeath();
+    /** Seed of this match (quote it in bug reports to reproduce the rounds). */
+    public long getMatchSeed() {
+        return matchSeed;
     }
 
-    private void handlePlayerJetwallCollision(int gridRow, int gridCol) {
-        triggerCollisionEffects(gridRow, gridCol);
-        boolean damageApplied = player.updateLives(-0.5);
-        if (damageApplied) {
-            hudPanel.addEvent("Hit jetwall! -0.5 lives");
-        }
-        if (player.getLives() <= 0)
-            handlePlayerDeath();
+    // === SimulationListener ===
+    @Override
+    public void onEvent(String message) {
+        postEvent(message);
     }
 
-    private void triggerCollisionEffects(int gridRow, int gridCol) {
+    @Override
+    public void onPlayerCollision(int gridRow, int gridCol) {
         collisionGlowFrames = COLLISION_GLOW_FRAMES_MAX;
         collisionShake = COLLISION_SHAKE_MAX;
         collisionGridPos = new Position(gridRow, gridCol);
         // also flash the HUD
-        hudPanel.triggerCollisionGlow();
+        SwingUtilities.invokeLater(hudPanel::triggerCollisionGlow);
     }
 
-    private void handlePlayerFallOff() {
-        player.updateLives(-player.getLives());
-        hudPanel.addEvent("Fell off the Grid!");
-        handlePlayerDeath();
+    @Override
+    public void onXpAwarded(int amount) {
+        totalScore += amount;
+        updateHUD();
     }
 
-    private void checkPlayerEnemyCollision() {
-        Position gridPos = getPlayerGridPos();
-        if (enemies == null)
-            return;
-        for (Enemy enemy : enemies) {
-            if (!enemy.isAlive())
-                continue;
-
-            Position ePos = enemy.getPosition();
-
-            if (gridPos.row == ePos.row && gridPos.col == ePos.col) {
-                boolean playerHit = player.updateLives(-0.5);
+    @Override
+    public void onLevelUp(int newLevel) {
+        postEvent("LEVEL UP! Now level " + newLevel);
+        storyManager.showAchievement("Reached Level " + newLevel);
+        if (newLevel == 10)
+            storyManager.playCutscene("LEVEL_10");
+        else if (newLevel == 25)
+            storyManager.playCutscene("LEVEL_25");
+    }
 
-                if (playerHit) {
-                    enemy.hitJetwall();
-                    hudPanel.addEvent("Collision with " + enemy.getName() + "!");
+    @Override
+    public void onEnemyMoved(Enemy enemy) {
+        // a segment one tile long behind the cycle's new cell
+        Position p = enemy.getPosition();
+        enemyTrails.add(p.col * tile_size + tile_size / 2.0, p.row * tile_size + tile_size / 2.0,
+                FrameSnapshot.angleOf(enemy.getDirection()), tile_size / 4.0,
+                WorldRenderer.trailColorOf(enemy.getColor()), simulation.getTick());
+    }
 
-                    if (!enemy.isAlive()) {
-                        hudPanel.addEvent(enemy.getName() + " derezzed!");
-                        awardXP(enemy.getXpReward());
-                    }
-                }
-            }
-        }
+    @Override
+    public void onPlayerDeath() {
+        handlePlayerDeath();
     }
 
-    private void awardXP(int xpAmount) {
-        int oldLvl = player.getLevel();
-        player.gainXp(xpAmount);
-        totalScore += xpAmount;
-        updateHUD();
-        if (player.getLevel() > oldLvl) {
-            hudPanel.addEvent("LEVEL UP! Now level " + player.getLevel());
-            storyManager.showAchievement("Reached Level " + player.getLevel());
-            if (player.getLevel() == 10)
-                storyManager.playCutscene("LEVEL_10");
-            else if (player.getLevel() == 25)
-                storyManager.playCutscene("LEVEL_25");
-        }
+    @Override
+    public void onRoundWin(int roundBonus) {
+        handleRoundWin(roundBonus);
     }
 
     private void handlePlayerDeath() {
         gameState = GameState.GAME_OVER;
-        running = false;
-        hudPanel.addEvent("DEREZZED!");
+        stopGameLoop();
+        saveReplay();
         Leaderboard.addEntry(player.getName(), player.getLevel(), totalScore);
 
         SwingUtilities.invokeLater(() -> {
@@ -651,21 +438,10 @@ public class GameEngine extends JFrame implements KeyListener {
 
     }
 
-    private void checkGameConditions() {
-        boolean allDead = enemies == null || enemies.stream().noneMatch(Enemy::isAlive);
-        if (allDead)
-            handleRoundWin();
-        if (player.getLives() <= 0)
-            handlePlayerDeath();
-    }
-
-    private void handleRoundWin() {
+    private void handleRoundWin(int roundBonus) {
         gameState = GameState.ROUND_WIN;
-        running = false;
-        int roundBonus = roundNumber * 100;
-        awardXP(roundBonus);
-        hudPanel.addEvent("ROUND " + roundNumber + " COMPLETE!");
-        hudPanel.addEvent("Bonus: +" + roundBonus + " XP");
+        stopGameLoop();
+        saveReplay();
 
         SwingUtilities.invokeLater(() -> {
             String message = "ROUND " + roundNumber + " COMPLETE!\n\n" +
@@ -678,7 +454,6 @@ public class GameEngine extends JFrame implements KeyListener {
                 roundNumber++;
                 initializeArena(getNextArenaType());
                 startNewRound();
-                running = true;
                 startGameLoop();
             } else if (choice == 1) { // Save & Quit
                 saveGame();
@@ -699,25 +474,42 @@ public class GameEngine extends JFrame implements KeyListener {
         };
     }
 
+    // The player is read on the calling thread (the one that owns it) and the
+    // HUD, a Swing component, is only touched on the EDT when a stat changed
     private void updateHUD() {
-        hudPanel.updateStats((int) player.getLives(), player.getXp(), player.getLevel(), player.getDiscsOwned(),
-                player.xpToLevelUp());
+        int lives = (int) player.getLives(), xp = player.getXp(), level = player.getLevel();
+        int discs = player.getDiscsOwned(), nextLevel = player.xpToLevelUp();
+        if (lives == hudLives && xp == hudXp && level == hudLevel && discs == hudDiscs && nextLevel == hudNextLevel)
+            return;
+        hudLives = lives;
+        hudXp = xp;
+        hudLevel = level;
+        hudDiscs = discs;
+        hudNextLevel = nextLevel;
+        SwingUtilities.invokeLater(() -> hudPanel.updateStats(lives, xp, level, discs, nextLevel));
+    }
+
+    private void postEvent(String message) {
+        SwingUtilities.invokeLater(() -> hudPanel.addEvent(message));
     }
 
     private void togglePause() {
         if (gameState == GameState.PLAYING) {
             gameState = GameState.PAUSED;
+            recorder.paused();
             hudPanel.addEvent("PAUSED");
             SwingUtilities.invokeLater(() -> {
                 JOptionPane.showMessageDialog(this, "Game Paused\nPress OK to resume", "Paused",
                         JOptionPane.INFORMATION_MESSAGE);
+                recorder.resumed();
                 gameState = GameState.PLAYING;
             });
         }
     }
 
     private void handleExit() {
-        running = false;
+        stopGameLoop();
+        saveReplay();
 
         String[] options = { "Save & Exit", "Exit without Save", "Cancel" };
         String message = "Do you want to save before exiting?";
@@ -730,12 +522,22 @@ public class GameEngine extends JFrame implements KeyListener {
             returnToMainMenu();
         } else { // Cancel or closed
             // resume
-            running = true;
             startGameLoop();
         }
 
     }
 
+    // Write the current round's replay (player bug reports, profiling runs)
+    private void saveReplay() {
+        if (recorder == null)
+            return;
+        try {
+            recorder.finish().write(REPLAY_FILE);
+        } catch (IOException e) {
+            System.out.println("Could not write replay: " + e.getMessage());
+        }
+    }
+
     private void saveGame() {
         // adapt SaveSystem signature in your project
         SaveSystem.saveProgress(
@@ -754,7 +556,9 @@ public class GameEngine extends JFrame implements KeyListener {
     }
 
     private void returnToMainMenu() {
-        running = false;
+        stopGameLoop();
+        if (renderCanvas != null)
+            renderCanvas.stop();
         dispose();
         new MainMenu();
     }
@@ -763,33 +567,16 @@ public class GameEngine extends JFrame implements KeyListener {
     @Override
     public void keyPressed(KeyEvent e) {
         int k = e.getKeyCode();
-        if (k < keysPressed.length)
-            keysPressed[k] = true;
-
-        switch (k) {
-            case KeyEvent.VK_W, KeyEvent.VK_UP -> {
-                persistentTargetAngle = -Math.PI / 2;
-                persistentMove = true;
-            }
-            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> {
-                persistentTargetAngle = Math.PI / 2;
-                persistentMove = true;
-            }
-            case KeyEvent.VK_A, KeyEvent.VK_LEFT -> {
-                persistentTargetAngle = Math.PI;
-                persistentMove = true;
-            }
-            case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> {
-                persistentTargetAngle = 0;
-                persistentMove = true;
-            }
-            case KeyEvent.VK_X -> persistentMove = false;
-        }
+        Direction dir = directionForKey(k);
+        if (dir != null)
+            simulation.getInput().press(dir);
+        else if (k == KeyEvent.VK_X)
+            simulation.getInput().stop();
 
         switch (k) {
             case KeyEvent.VK_SPACE -> {
                 if (gameState == GameState.PLAYING)
-                    throwPlayerDisc();
+                    simulation.getInput().requestDiscThrow();
             }
             case KeyEvent.VK_P -> togglePause();
             case KeyEvent.VK_ESCAPE -> handleExit();
@@ -798,9 +585,19 @@ public class GameEngine extends JFrame implements KeyListener {
 
     @Override
     public void keyReleased(KeyEvent e) {
-        int k = e.getKeyCode();
-        if (k < keysPressed.length)
-            keysPressed[k] = false;
+        Direction dir = directionForKey(e.getKeyCode());
+        if (dir != null)
+            simulation.getInput().release(dir);
+    }
+
+    private static Direction directionForKey(int keyCode) {
+        return switch (keyCode) {
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> Direction.UP;
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> Direction.DOWN;
+            case KeyEvent.VK_A, KeyEvent.VK_LEFT -> Direction.LEFT;
+            case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> Direction.RIGHT;
+            default -> null;
+        };
     }
 
     @Override
@@ -808,6 +605,8 @@ public class GameEngine extends JFrame implements KeyListener {
     }
 
     // === Rendering Panel ===
+    // Passive view: the loop asks for a repaint every frame and the EDT takes
+    // the latest published frame from the exchange
     private class GamePanel extends JPanel {
         public GamePanel() {
             setBackground(Color.BLACK);
@@ -817,273 +616,9 @@ public class GameEngine extends JFrame implements KeyListener {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g.create();
-
-            // apply camera shake if active
-            if (collisionShake > 0.01) {
-                double sx = (Math.random() * 2 - 1) * collisionShake;
-                double sy = (Math.random() * 2 - 1) * collisionShake;
-                g2d.translate((int) sx, (int) sy);
-            }
-
-            // draw arena and elements
-            drawArena(g2d);
-            drawPlayerTrail(g2d);
-            drawEnemies(g2d);
-            drawPlayer(g2d);
-            drawDiscs(g2d);
-
-            // draw collision glow overlay in world
-            if (collisionGlowFrames > 0 && collisionGridPos != null) {
-                float t = (float) collisionGlowFrames / (float) COLLISION_GLOW_FRAMES_MAX;
-                drawPlayerCollisionGlow(g2d, collisionGridPos, t);
-            }
-
-            drawStateOverlay(g2d);
+            worldRenderer.render(g2d, frames.latest(), renderAlpha, getWidth(), getHeight(), getGraphicsConfiguration());
             g2d.dispose();
         }
-
-        private void drawArena(Graphics2D g2d) {
-            int[][] grid = arena.getGridCopy();
-            for (int r = 0; r < Arena.SIZE; r++) {
-                for (int c = 0; c < Arena.SIZE; c++) {
-                    int x = c * tile_size, y = r * tile_size;
-                    if (grid[r][c] == 1) {
-                        g2d.setColor(new Color(40, 40, 60));
-                        g2d.fillRect(x, y, tile_size, tile_size);
-                        g2d.setColor(new Color(60, 60, 80));
-                        g2d.drawRect(x, y, tile_size, tile_size);
-                    } else if (grid[r][c] == 2) {
-                        g2d.setColor(new Color(200, 0, 200));
-                        g2d.fillRect(x, y, tile_size, tile_size);
-                        g2d.setColor(new Color(255, 100, 255));
-                        g2d.drawRect(x, y, tile_size, tile_size);
-                    } else {
-                        g2d.setColor(new Color(10, 10, 20));
-                        g2d.fillRect(x, y, tile_size, tile_size);
-                        g2d.setColor(new Color(30, 30, 50));
-                        g2d.drawRect(x, y, tile_size, tile_size);
-                    }
-                }
-            }
-        }
-
-        private void drawPlayerTrail(Graphics2D g2d) {
-            Color trailColor = player.getName().equalsIgnoreCase("Tron") ? new Color(49, 213, 247)
-                    : player.getName().equalsIgnoreCase("Kevin") ? Color.WHITE : new Color(0, 255, 200);
-
-            for (TrailPoint tp : playerTrail) {
-                AffineTransform old = g2d.getTransform();
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, tp.life * 0.8f));
-                g2d.setColor(trailColor);
-                int thickness = (int) (tile_size * 0.4 * tp.life);
-                int length = (int) (tp.velocity * 4);
-                g2d.translate(tp.x, tp.y);
-                g2d.rotate(tp.angle);
-                g2d.fillRoundRect(-length, -thickness / 2, length, thickness, thickness, thickness);
-                g2d.setTransform(old);
-            }
-            g2d.setComposite(AlphaComposite.SrcOver);
-        }
-
-        private BufferedImage getPlayerSprite() {
-            if (player.getName().equalsIgnoreCase("Tron")) {
-                return tronSprite;
-            } else if (player.getName().equalsIgnoreCase("Kevin")) {
-                return kevinSprite;
-            }
-            return tronSprite; // fallback
-        }
-
-        private void drawPlayer(Graphics2D g2d) {
-            BufferedImage sprite = getPlayerSprite();
-            if (sprite == null)
-                return;
-
-            AffineTransform old = g2d.getTransform();
-
-            g2d.translate(playerPixelX, playerPixelY);
-            g2d.rotate(currentAngle);
-
-            // ===== GLOW EFFECT =====
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.35f));
-            int glowSize = tile_size * 2;
-            g2d.drawImage(
-                    sprite,
-                    -glowSize / 2,
-                    -glowSize / 2,
-                    glowSize,
-                    glowSize,
-                    null);
-
-            // ===== PLAYER SPRITE =====
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-            g2d.drawImage(
-                    sprite,
-                    -tile_size / 2,
-                    -tile_size / 2,
-                    tile_size,
-                    tile_size,
-                    null);
-
-            g2d.setTransform(old); // reset
-        }
-
-        private BufferedImage getEnemySprite(String enemyName) {
-            return switch (enemyName.toUpperCase()) {
-                case "CLU" -> enemyClu;
-                case "RINZLER" -> enemyRinzler;
-                case "SARK" -> enemySark;
-                case "KOURA" -> enemyKoura;
-                default -> null; // fallback
-            };
-        }
-
-        private void drawEnemies(Graphics2D g2d) {
-            if (enemies == null)
-                return;
-            for (Enemy enemy : enemies) {
-                if (!enemy.isAlive())
-                    continue;
-                Position p = enemy.getPosition();
-                int x = p.col * tile_size + tile_size / 2, y = p.row * tile_size + tile_size / 2;
-
-                BufferedImage sprite = getEnemySprite(enemy.getName());
-                if (sprite != null) {
-                    AffineTransform old = g2d.getTransform();
-
-                    // Translate to enemy center and rotate based on its direction
-                    g2d.translate(x, y);
-
-                    double angle = 0.0;
-                    Direction dir = enemy.getDirection();
-                    if (dir == Direction.UP) {
-                        angle = -Math.PI / 2;
-                    } else if (dir == Direction.DOWN) {
-                        angle = Math.PI / 2;
-                    } else if (dir == Direction.LEFT) {
-                        angle = Math.PI;
-                    } else if (dir == Direction.RIGHT) {
-                        angle = 0;
-                    }
-                    g2d.rotate(angle);
-
-                    // Glow
-                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.3f));
-                    g2d.drawImage(sprite, -tile_size, -tile_size, tile_size * 2, tile_size * 2, null);
-
-                    // Actual enemy sprite
-                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-                    g2d.drawImage(sprite, -tile_size / 2, -tile_size / 2, tile_size, tile_size, null);
-
-                    g2d.setTransform(old);
-                } else {
-                    g2d.setColor(Color.RED);
-                    g2d.fillOval(x - tile_size / 2, y - tile_size / 2, tile_size, tile_size);
-                }
-
-                // Name initial
-                g2d.setColor(Color.BLACK);
-                g2d.setFont(new Font("Monospaced", Font.BOLD, 10));
-                FontMetrics fm = g2d.getFontMetrics();
-                String initial = enemy.getName().substring(0, 1);
-                g2d.drawString(initial, x - fm.stringWidth(initial) / 2, y + fm.getAscent() / 2 - 2);
-            }
-            g2d.setComposite(AlphaComposite.SrcOver);
-        }
-
-        private void drawDiscs(Graphics2D g2d) {
-            if (activeDiscs == null)
-                return;
-            for (Disc d : activeDiscs) {
-                if (d.hasCollisionGlow())
-                    drawDiscCollisionGlow(g2d, d);
-                if (d.isActive()) {
-                    double smoothCol = d.getSmoothCol(), smoothRow = d.getSmoothRow();
-                    double x = smoothCol * tile_size + tile_size / 2.0, y = smoothRow * tile_size + tile_size / 2.0;
-                    Color color = d.getOwner() == null ? new Color(0, 255, 255) : new Color(255, 100, 100);
-                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
-                    g2d.setColor(color);
-                    g2d.fillOval((int) (x - 6), (int) (y - 6), 12, 12);
-                    g2d.setComposite(AlphaComposite.SrcOver);
-                    g2d.setColor(Color.WHITE);
-                    g2d.setStroke(new BasicStroke(2));
-                    g2d.drawOval((int) (x - 5), (int) (y - 5), 10, 10);
-                } else {
-                    Position p = d.getPosition();
-                    double x = p.col * tile_size + tile_size / 2.0, y = p.row * tile_size + tile_size / 2.0;
-                    Color base = d.getOwner() == null ? new Color(0, 180, 180) : new Color(200, 80, 80);
-                    g2d.setComposite(AlphaComposite.SrcOver);
-                    g2d.setColor(base);
-                    g2d.fillOval((int) (x - 6), (int) (y - 6), 12, 12);
-                    g2d.setColor(Color.WHITE);
-                    g2d.drawOval((int) (x - 5), (int) (y - 5), 10, 10);
-                }
-            }
-            g2d.setComposite(AlphaComposite.SrcOver);
-        }
-
-        private void drawDiscCollisionGlow(Graphics2D g2d, Disc d) {
-            Position cp = d.getLastCollisionPos();
-            if (cp == null)
-                return;
-            int x = cp.col * tile_size + tile_size / 2, y = cp.row * tile_size + tile_size / 2;
-            float glow = d.getCollisionGlowIntensity();
-            Color color = d.getOwner() == null ? new Color(0, 255, 255) : new Color(255, 100, 100);
-
-            int max = tile_size * 3, min = tile_size;
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glow * 0.3f));
-            g2d.setColor(color);
-            int outer = (int) (min + (max - min) * glow);
-            g2d.fillOval(x - outer / 2, y - outer / 2, outer, outer);
-
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glow * 0.5f));
-            int mid = (int) (min + (max * 0.6f - min) * glow);
-            g2d.fillOval(x - mid / 2, y - mid / 2, mid, mid);
-
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glow * 0.8f));
-            int core = (int) (tile_size * 0.5 + (tile_size * 1.5 - tile_size * 0.5) * glow);
-            g2d.fillOval(x - core / 2, y - core / 2, core, core);
-            g2d.setComposite(AlphaComposite.SrcOver);
-        }
-
-        private void drawPlayerCollisionGlow(Graphics2D g2d, Position gridPos, float t) {
-            if (gridPos == null)
-                return;
-            int cx = gridPos.col * tile_size + tile_size / 2;
-            int cy = gridPos.row * tile_size + tile_size / 2;
-            float alpha = Math.min(0.9f, 0.2f + t * 0.8f);
-
-            Color glowColor = new Color(255, 90, 90, (int) (alpha * 200));
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha * 0.6f));
-            g2d.setColor(glowColor);
-
-            int maxSize = tile_size * 5;
-            int size = (int) (tile_size + (maxSize - tile_size) * (1.0f - t)); // shrink while fading
-            g2d.fillOval(cx - size / 2, cy - size / 2, size, size);
-
-            // inner bright core
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-            g2d.setColor(new Color(255, 140, 140, (int) (alpha * 255)));
-            int core = (int) (tile_size * (1.0 + 0.6 * (1.0 - t)));
-            g2d.fillOval(cx - core / 2, cy - core / 2, core, core);
-
-            g2d.setComposite(AlphaComposite.SrcOver);
-        }
-
-        private void drawStateOverlay(Graphics2D g2d) {
-            if (gameState == GameState.PAUSED) {
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
-                g2d.setColor(Color.BLACK);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-                g2d.setComposite(AlphaComposite.SrcOver);
-                g2d.setColor(new Color(0, 200, 255));
-                g2d.setFont(new Font("Monospaced", Font.BOLD, 30));
-                String text = "PAUSED";
-                FontMetrics fm = g2d.getFontMetrics();
-                g2d.drawString(text, (getWidth() - fm.stringWidth(text)) / 2, getHeight() / 2);
-            }
-        }
-
     }
 
     // Helper: modal themed option dialog that returns index of selected option (-1
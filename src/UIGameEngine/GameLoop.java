@@ -0,0 +1,166 @@
+package src.UIGameEngine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game loop on its own thread.
+ *
+ * Updates run at exactly one step per stepNanos of elapsed time: when the
+ * thread falls behind it runs a catch-up burst of up to MAX_CATCH_UP_STEPS
+ * updates, and anything beyond that is dropped (the game slows down visibly
+ * instead of spiralling). Frames are rendered at their own rate with alpha =
+ * fraction of a step since the last update, so the view can interpolate
+ * between the previous and the current state.
+ *
+ * Waiting uses parkNanos for the bulk of the time and spins only for the last
+ * SPIN_NANOS, which is precise without burning a core on sleep(1) wakeups.
+ * Late frames (needed a catch-up) and dropped steps are counted (see the
+ * getters); with -Dfoptron.debugFrames=true they are also printed at most
+ * once a second.
+ */
+public class GameLoop {
+    /** Game side of the loop; both methods run on the loop thread. */
+    public interface Stage {
+        void update();
+
+        /** @param alpha 0..1, how far the clock is between the last update and the next */
+        void render(double alpha);
+    }
+
+    private static final int MAX_CATCH_UP_STEPS = 5;
+    private static final long SPIN_NANOS = 200_000; // parkNanos overshoots by ~50-100 us
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+
+    // Print frame pacing problems to the console (loops and the render canvas)
+    static final boolean DEBUG_FRAMES = Boolean.getBoolean("foptron.debugFrames");
+
+    private final String name;
+    private final long stepNanos;
+    private final long frameNanos;
+    private final Stage stage;
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile long updates, frames, lateFrames, droppedSteps;
+    private long reportedLate, reportedDropped, lastReport;
+
+    /**
+     * @param updatesPerSecond fixed simulation rate
+     * @param framesPerSecond  render rate (e.g. the display refresh rate); 0 if
+     *                         frames are drawn elsewhere (render is never called)
+     */
+    public GameLoop(String name, int updatesPerSecond, int framesPerSecond, Stage stage) {
+        this.name = name;
+        this.stepNanos = 1_000_000_000L / updatesPerSecond;
+        this.frameNanos = framesPerSecond <= 0 ? 0 : 1_000_000_000L / framesPerSecond;
+        this.stage = stage;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.start();
+    }
+
+    /**
+     * Ask the loop to exit after the current iteration and wait for it, so no
+     * update runs once this returns. Safe from any thread; from the loop
+     * thread itself (an update ending the game) it only asks.
+     */
+    public void stop() {
+        running = false;
+        if (thread == null || thread == Thread.currentThread())
+            return;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long previous = System.nanoTime();
+        long lag = 0; // simulated time owed, in nanos
+        long nextFrame = previous;
+        lastReport = previous;
+
+        while (running) {
+            long now = System.nanoTime();
+            lag += now - previous;
+            previous = now;
+
+            int steps = 0;
+            while (lag >= stepNanos && steps < MAX_CATCH_UP_STEPS && running) {
+                stage.update();
+                lag -= stepNanos;
+                steps++;
+            }
+            updates += steps;
+            if (steps > 1)
+                lateFrames++;
+            if (lag >= stepNanos) {
+                droppedSteps += lag / stepNanos;
+                lag %= stepNanos;
+            }
+
+            if (frameNanos > 0 && now - nextFrame >= 0) {
+                stage.render((double) lag / stepNanos);
+                frames++;
+                nextFrame += frameNanos;
+                if (now - nextFrame > frameNanos)
+                    nextFrame = now + frameNanos; // skipped frames: don't render them back to back
+            }
+
+            report(now);
+            long nextUpdate = now + (stepNanos - lag);
+            sleepUntil(frameNanos == 0 ? nextUpdate : Math.min(nextUpdate, nextFrame));
+        }
+    }
+
+    private void report(long now) {
+        if (!DEBUG_FRAMES || now - lastReport < REPORT_INTERVAL_NANOS)
+            return;
+        long late = lateFrames - reportedLate, dropped = droppedSteps - reportedDropped;
+        if (late > 0 || dropped > 0)
+            System.out.println(name + ": " + late + " late frames, " + dropped + " dropped updates in the last "
+                    + (now - lastReport) / 1_000_000 + " ms");
+        reportedLate = lateFrames;
+        reportedDropped = droppedSteps;
+        lastReport = now;
+    }
+
+    /** Park until close to the deadline, then spin the rest. */
+    static void sleepUntil(long deadline) {
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+            if (remaining > SPIN_NANOS)
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            else
+                Thread.onSpinWait();
+        }
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /** Iterations that had to run more than one update to catch up. */
+    public long getLateFrames() {
+        return lateFrames;
+    }
+
+    /** Updates skipped because the catch-up burst limit was reached. */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
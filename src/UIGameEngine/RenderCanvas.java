@@ -0,0 +1,170 @@
+package src.UIGameEngine;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.function.Supplier;
+
+/**
+ * Active rendering: a heavyweight Canvas drawn by its own render thread
+ * through a {@link BufferStrategy}, independent of the Swing event queue.
+ *
+ * The thread wakes up once per display frame, takes the latest
+ * {@link FrameSnapshot} the game thread published and draws it with the
+ * player interpolated by the time elapsed since that snapshot. Page flipping
+ * is requested and the canvas falls back to whatever strategy AWT offers
+ * (blitting) when the pipeline can't flip.
+ *
+ * Frame pacing is measured: frames whose interval exceeds 1.5 frame periods
+ * are counted as missed, and the worst interval and average draw time are
+ * kept per one-second window (see the getters). With
+ * -Dfoptron.debugFrames=true windows with missed frames are also printed.
+ */
+class RenderCanvas extends Canvas {
+    private static final long serialVersionUID = 1L;
+    private static final int BUFFERS = 2;
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final WorldRenderer renderer;
+    private final Supplier<FrameSnapshot> frames;
+    private final long frameNanos;
+    private final long stepNanos;
+
+    private BufferStrategy strategy;
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile long frameCount, missedFrames;
+    private volatile long worstIntervalNanos, averageDrawNanos; // last report window
+    private long windowFrames, windowDraw, windowWorst, reportedMissed, lastReport;
+
+    /**
+     * @param frames          latest published frame, null before the first one
+     *                        (called only from the render thread)
+     * @param framesPerSecond render rate, normally the display refresh rate
+     * @param ticksPerSecond  simulation rate, for interpolating between snapshots
+     */
+    RenderCanvas(WorldRenderer renderer, Supplier<FrameSnapshot> frames, int framesPerSecond, int ticksPerSecond) {
+        this.renderer = renderer;
+        this.frames = frames;
+        this.frameNanos = 1_000_000_000L / Math.max(1, framesPerSecond);
+        this.stepNanos = 1_000_000_000L / ticksPerSecond;
+        setBackground(Color.BLACK);
+        setIgnoreRepaint(true); // every pixel comes from the render thread
+    }
+
+    /** Creates the buffer strategy and starts the render thread; the canvas must be displayable. */
+    void start() {
+        if (running)
+            return;
+        try {
+            createBufferStrategy(BUFFERS, new BufferCapabilities(new ImageCapabilities(true),
+                    new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            createBufferStrategy(BUFFERS); // no page flipping here: best available
+        }
+        strategy = getBufferStrategy();
+        running = true;
+        thread = new Thread(this::run, "RenderThread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops the render thread and waits briefly for its last frame to finish. */
+    void stop() {
+        running = false;
+        if (thread == null || thread == Thread.currentThread())
+            return;
+        try {
+            thread.join(250);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long nextFrame = System.nanoTime();
+        long lastShow = nextFrame;
+        lastReport = nextFrame;
+
+        while (running) {
+            GameLoop.sleepUntil(nextFrame);
+            long start = System.nanoTime();
+            drawFrame(start);
+            long shown = System.nanoTime();
+
+            long interval = shown - lastShow;
+            lastShow = shown;
+            frameCount++;
+            if (interval > frameNanos + frameNanos / 2)
+                missedFrames++;
+            windowFrames++;
+            windowDraw += shown - start;
+            windowWorst = Math.max(windowWorst, interval);
+            report(shown);
+
+            nextFrame += frameNanos;
+            if (shown - nextFrame > frameNanos)
+                nextFrame = shown + frameNanos; // fell behind: don't draw the missed frames back to back
+        }
+    }
+
+    private void drawFrame(long now) {
+        FrameSnapshot f = frames.get();
+        double alpha = f == null ? 1.0 : Math.min(1.0, (double) (now - f.capturedNanos) / stepNanos);
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    renderer.render(g, f, alpha, getWidth(), getHeight(), getGraphicsConfiguration());
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); // flush the pipeline so the frame is on screen now
+    }
+
+    private void report(long now) {
+        if (now - lastReport < REPORT_INTERVAL_NANOS)
+            return;
+        worstIntervalNanos = windowWorst;
+        averageDrawNanos = windowFrames == 0 ? 0 : windowDraw / windowFrames;
+        long missed = missedFrames - reportedMissed;
+        if (GameLoop.DEBUG_FRAMES && missed > 0)
+            System.out.printf("RenderThread: %d missed frames of %d, worst %.1f ms, draw %.2f ms avg%n", missed,
+                    windowFrames, worstIntervalNanos / 1e6, averageDrawNanos / 1e6);
+        reportedMissed = missedFrames;
+        windowFrames = windowDraw = windowWorst = 0;
+        lastReport = now;
+    }
+
+    boolean isPageFlipping() {
+        return strategy != null && strategy.getCapabilities().isPageFlipping();
+    }
+
+    long getFrames() {
+        return frameCount;
+    }
+
+    /** Frames shown more than 1.5 frame periods after the previous one. */
+    long getMissedFrames() {
+        return missedFrames;
+    }
+
+    /** Longest time between two shown frames in the last report window. */
+    long getWorstIntervalNanos() {
+        return worstIntervalNanos;
+    }
+
+    /** Average time spent drawing and showing a frame in the last report window. */
+    long getAverageDrawNanos() {
+        return averageDrawNanos;
+    }
+}
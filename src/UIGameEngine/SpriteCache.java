@@ -0,0 +1,101 @@
+package src.UIGameEngine;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pre-scaled, pre-rotated sprites with their glow baked in.
+ *
+ * Drawing a full-size image scaled under a rotated transform (twice, for the
+ * glow) sends Java2D down its generic transform path every frame. Instead each
+ * registered {@link Sprite} renders, on first use, one display-compatible
+ * image per angle bucket holding the translucent glow and the sprite on top,
+ * and drawing it is a single untransformed blit. Cycles only face the four
+ * grid directions, which fall exactly on buckets.
+ *
+ * Must be used from the thread that renders.
+ */
+class SpriteCache {
+    static final int ANGLE_BUCKETS = 32;
+
+    /** One source image at one size with one glow; the rotations are built lazily. */
+    final class Sprite {
+        private final BufferedImage source;
+        private final int size, glowSize;
+        private final float glowAlpha;
+        private final int extent; // side of the baked images: fits the glow at any angle
+        private final BufferedImage[] rotations = new BufferedImage[ANGLE_BUCKETS];
+
+        private Sprite(BufferedImage source, int size, int glowSize, float glowAlpha) {
+            this.source = source;
+            this.size = size;
+            this.glowSize = glowSize;
+            this.glowAlpha = glowAlpha;
+            this.extent = (int) Math.ceil(Math.max(size, glowSize) * Math.sqrt(2)) + 2;
+        }
+
+        /** Draws the sprite centred on (x, y), rotated to the nearest angle bucket. */
+        void draw(Graphics2D g, int x, int y, double angle) {
+            int bucket = Math.floorMod((int) Math.round(angle / (2 * Math.PI) * ANGLE_BUCKETS), ANGLE_BUCKETS);
+            BufferedImage img = rotations[bucket];
+            if (img == null)
+                img = rotations[bucket] = bake(bucket);
+            g.drawImage(img, x - extent / 2, y - extent / 2, null);
+        }
+
+        private BufferedImage bake(int bucket) {
+            BufferedImage img = gc != null ? gc.createCompatibleImage(extent, extent, Transparency.TRANSLUCENT)
+                    : new BufferedImage(extent, extent, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = img.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.translate(extent / 2, extent / 2);
+            g.rotate(bucket * 2 * Math.PI / ANGLE_BUCKETS);
+            if (glowSize > 0) {
+                g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glowAlpha));
+                g.drawImage(source, -glowSize / 2, -glowSize / 2, glowSize, glowSize, null);
+                g.setComposite(AlphaComposite.SrcOver);
+            }
+            g.drawImage(source, -size / 2, -size / 2, size, size, null);
+            g.dispose();
+            return img;
+        }
+
+        private void clear() {
+            Arrays.fill(rotations, null);
+        }
+    }
+
+    private final List<Sprite> sprites = new ArrayList<>();
+    private GraphicsConfiguration gc;
+
+    /**
+     * @param size      drawn size of the sprite in pixels
+     * @param glowSize  size of the glow copy drawn underneath (0 for none)
+     * @param glowAlpha opacity of the glow copy
+     * @return null if source is null (image failed to load)
+     */
+    Sprite register(BufferedImage source, int size, int glowSize, float glowAlpha) {
+        if (source == null)
+            return null;
+        Sprite s = new Sprite(source, size, glowSize, glowAlpha);
+        sprites.add(s);
+        return s;
+    }
+
+    /** Images are made compatible with this configuration; a different one drops every baked image. */
+    void setGraphicsConfiguration(GraphicsConfiguration gc) {
+        if (gc == this.gc)
+            return;
+        this.gc = gc;
+        for (Sprite s : sprites)
+            s.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package src.UIGameEngine;
+
+/**
+ * Fading light-cycle trail points in a fixed-capacity ring buffer.
+ *
+ * Points are stored struct-of-arrays (x, y, angle, velocity, birth tick,
+ * colour index) so adding one allocates nothing. Every point fades at the same
+ * rate, so the oldest point is always the first to die and expiry just
+ * advances the head: life is derived from the birth tick instead of being
+ * decremented point by point. When the ring is full the oldest point is
+ * overwritten.
+ *
+ * Owned by the game thread; the view gets copies through {@link #copyTo}.
+ */
+final class TrailBuffer {
+    static final float FADE_PER_TICK = 0.03f;
+
+    private final double[] x, y, angle, velocity;
+    private final long[] born;
+    private final byte[] color;
+    private int head, size; // head = oldest point
+
+    TrailBuffer(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        angle = new double[capacity];
+        velocity = new double[capacity];
+        born = new long[capacity];
+        color = new byte[capacity];
+    }
+
+    /**
+     * @param velocity pixels per tick; the segment drawn behind the point is
+     *                 four times that long
+     * @param color    index into the renderer's trail palette
+     */
+    void add(double px, double py, double angle, double velocity, int color, long tick) {
+        int cap = x.length;
+        int slot;
+        if (size == cap) {
+            slot = head; // full: overwrite the oldest
+            head = (head + 1) % cap;
+        } else {
+            slot = (head + size) % cap;
+            size++;
+        }
+        x[slot] = px;
+        y[slot] = py;
+        this.angle[slot] = angle;
+        this.velocity[slot] = velocity;
+        born[slot] = tick;
+        this.color[slot] = (byte) color;
+    }
+
+    /** Drops every point that has faded out by the given tick. */
+    void expire(long tick) {
+        while (size > 0 && life(born[head], tick) <= 0) {
+            head = (head + 1) % x.length;
+            size--;
+        }
+    }
+
+    void clear() {
+        head = size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the points, oldest first, into the frame's trail arrays starting
+     * at offset (the frame must already have room for them).
+     */
+    void copyTo(FrameSnapshot f, int offset, long tick) {
+        int cap = x.length;
+        for (int i = 0; i < size; i++) {
+            int s = (head + i) % cap;
+            int d = offset + i;
+            f.trailX[d] = x[s];
+            f.trailY[d] = y[s];
+            f.trailAngle[d] = angle[s];
+            f.trailVelocity[d] = velocity[s];
+            f.trailLife[d] = life(born[s], tick);
+            f.trailColor[d] = color[s];
+        }
+    }
+
+    // 1 when added, minus FADE_PER_TICK for every tick since (including the tick it was added on)
+    private static float life(long born, long tick) {
+        return 1.0f - FADE_PER_TICK * (tick - born + 1);
+    }
+}
@@ -0,0 +1,396 @@
+package src.UIGameEngine;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import javax.imageio.ImageIO;
+import src.Arena.Arena;
+
+/**
+ * Draws a {@link FrameSnapshot}: arena, player trail, enemies, player, discs,
+ * collision glows and the pause overlay, with a camera that follows the
+ * player.
+ *
+ * Reads nothing but the frame (and the arena's change log up to the frame's
+ * version), so it can run on any single thread: the EDT for the passive
+ * {@link GameEngine} panel or the render thread of {@link RenderCanvas}.
+ */
+class WorldRenderer {
+    private static final Color DISC_PLAYER = new Color(0, 255, 255);
+    private static final Color DISC_ENEMY = new Color(255, 100, 100);
+    private static final Color DISC_PLAYER_IDLE = new Color(0, 180, 180);
+    private static final Color DISC_ENEMY_IDLE = new Color(200, 80, 80);
+    private static final Font INITIAL_FONT = new Font("Monospaced", Font.BOLD, 10);
+    private static final Font OVERLAY_FONT = new Font("Monospaced", Font.BOLD, 30);
+    private static final BasicStroke DISC_STROKE = new BasicStroke(2);
+
+    // Trail palette (FrameSnapshot.trailColor): the player's colour depends on
+    // the character, enemies use the colour from enemies.txt
+    static final int TRAIL_PLAYER = 0;
+    private static final int TRAIL_GOLD = 1, TRAIL_RED = 2, TRAIL_YELLOW = 3, TRAIL_GREEN = 4;
+    private static final Color[] TRAIL_COLORS = { null, new Color(255, 200, 0), new Color(255, 70, 70),
+            new Color(255, 255, 90), new Color(60, 255, 120) };
+    private static final Color TRAIL_TRON = new Color(49, 213, 247);
+    private static final Color TRAIL_OTHER = new Color(0, 255, 200);
+
+    // Trails are drawn in bands of similar life: one stroked path per
+    // (colour, band) with the band's opacity and thickness
+    private static final int TRAIL_BANDS = 8;
+    private final AlphaComposite[] bandComposite = new AlphaComposite[TRAIL_BANDS];
+    private final BasicStroke[] bandStroke = new BasicStroke[TRAIL_BANDS];
+    private final Path2D.Float trailPath = new Path2D.Float(Path2D.WIND_NON_ZERO, 256);
+    private final int[] bucketStart = new int[TRAIL_COLORS.length * TRAIL_BANDS + 1];
+    private int[] bucketOrder = new int[256];
+
+    private final int tileSize;
+
+    // Sprites with their glow, pre-rotated (null if the image didn't load)
+    private final SpriteCache spriteCache = new SpriteCache();
+    private SpriteCache.Sprite kevinSprite;
+    private SpriteCache.Sprite tronSprite;
+    private SpriteCache.Sprite enemyClu;
+    private SpriteCache.Sprite enemyRinzler;
+    private SpriteCache.Sprite enemySark;
+    private SpriteCache.Sprite enemyKoura;
+
+    // Camera shake rolls (the simulation's view stream, so shakes replay too)
+    private SplittableRandom shakeRandom = new SplittableRandom();
+
+    // Camera (top-left of the viewport in world pixels) and visible tile range,
+    // recomputed every frame so big arenas only draw what is on screen.
+    private int camX, camY;
+    private double playerX, playerY; // interpolated, world pixels
+    private int firstRow, lastRow, firstCol, lastCol;
+
+    // Pre-rendered floor/walls + jetwall overlay, kept in sync by pulling the
+    // arena's change log ("what changed since the version we last drew")
+    private final ArenaLayerCache arenaLayer;
+    private Arena layerArena;
+    private long layerVersion;
+    private final int[] changedCells = new int[1024];
+
+    WorldRenderer(int tileSize) {
+        this.tileSize = tileSize;
+        this.arenaLayer = new ArenaLayerCache(tileSize);
+        for (int b = 0; b < TRAIL_BANDS; b++) {
+            float life = (b + 0.5f) / TRAIL_BANDS; // band centre
+            bandComposite[b] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, life * 0.8f);
+            bandStroke[b] = new BasicStroke(tileSize * 0.4f * life, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+        }
+        try {
+            // player: glow at 35%, enemies: glow at 30%, both twice the tile size
+            this.kevinSprite = spriteCache.register(ImageIO.read(new File("res/Kevin/Kevin.png")), tileSize,
+                    tileSize * 2, 0.35f);
+            this.tronSprite = spriteCache.register(ImageIO.read(new File("res/Tron/Tron.png")), tileSize,
+                    tileSize * 2, 0.35f);
+            this.enemyClu = spriteCache.register(ImageIO.read(new File("res/Clu/Clu.png")), tileSize,
+                    tileSize * 2, 0.3f);
+            this.enemyRinzler = spriteCache.register(ImageIO.read(new File("res/Rinzler/Rinzler.png")), tileSize,
+                    tileSize * 2, 0.3f);
+            this.enemySark = spriteCache.register(ImageIO.read(new File("res/Sark/Sark.png")), tileSize,
+                    tileSize * 2, 0.3f);
+            this.enemyKoura = spriteCache.register(ImageIO.read(new File("res/Koura/Koura.png")), tileSize,
+                    tileSize * 2, 0.3f);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Trail palette index for an enemy colour name from enemies.txt. */
+    static int trailColorOf(String enemyColor) {
+        if (enemyColor == null)
+            return TRAIL_RED;
+        return switch (enemyColor.toUpperCase()) {
+            case "GOLD" -> TRAIL_GOLD;
+            case "YELLOW" -> TRAIL_YELLOW;
+            case "GREEN" -> TRAIL_GREEN;
+            default -> TRAIL_RED;
+        };
+    }
+
+    void setShakeRandom(SplittableRandom shakeRandom) {
+        this.shakeRandom = shakeRandom;
+    }
+
+    /**
+     * Draws the frame into a width x height viewport.
+     *
+     * @param alpha 0..1, how far between the frame's previous and current
+     *              player position to draw the player
+     */
+    void render(Graphics2D g2d, FrameSnapshot f, double alpha, int width, int height, GraphicsConfiguration gc) {
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, width, height);
+        if (f == null)
+            return;
+        AffineTransform screen = g2d.getTransform();
+
+        // apply camera shake if active
+        if (f.shake > 0.01) {
+            double sx = (shakeRandom.nextDouble() * 2 - 1) * f.shake;
+            double sy = (shakeRandom.nextDouble() * 2 - 1) * f.shake;
+            g2d.translate((int) sx, (int) sy);
+        }
+
+        // player drawn between the last two updates
+        playerX = f.prevPlayerX + (f.playerX - f.prevPlayerX) * alpha;
+        playerY = f.prevPlayerY + (f.playerY - f.prevPlayerY) * alpha;
+
+        updateCamera(f.arena, width, height);
+        g2d.translate(-camX, -camY);
+
+        // draw arena and elements
+        spriteCache.setGraphicsConfiguration(gc);
+        drawArena(g2d, f, gc);
+        drawTrails(g2d, f);
+        drawEnemies(g2d, f);
+        drawPlayer(g2d, f);
+        drawDiscs(g2d, f);
+
+        // draw collision glow overlay in world
+        if (f.collisionGlow > 0)
+            drawPlayerCollisionGlow(g2d, f.collisionRow, f.collisionCol, f.collisionGlow);
+
+        g2d.setTransform(screen);
+        drawStateOverlay(g2d, f, width, height);
+    }
+
+    // Follow the player, clamped to the arena edges
+    private void updateCamera(Arena arena, int width, int height) {
+        int worldW = arena.getCols() * tileSize;
+        int worldH = arena.getRows() * tileSize;
+        camX = clamp((int) playerX - width / 2, 0, Math.max(0, worldW - width));
+        camY = clamp((int) playerY - height / 2, 0, Math.max(0, worldH - height));
+
+        firstCol = camX / tileSize;
+        firstRow = camY / tileSize;
+        lastCol = Math.min(arena.getCols() - 1, (camX + width) / tileSize);
+        lastRow = Math.min(arena.getRows() - 1, (camY + height) / tileSize);
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    // true if the cell is inside the visible range (with a one-tile margin for glows)
+    private boolean isVisible(int row, int col) {
+        return row >= firstRow - 1 && row <= lastRow + 1 && col >= firstCol - 1 && col <= lastCol + 1;
+    }
+
+    private void drawArena(Graphics2D g2d, FrameSnapshot f, GraphicsConfiguration gc) {
+        arenaLayer.setGraphicsConfiguration(gc);
+        if (layerArena != f.arena) {
+            layerArena = f.arena;
+            layerVersion = f.arenaVersion;
+            arenaLayer.setArena(f.arena);
+        } else if (f.arenaVersion != layerVersion) {
+            int n = f.arena.getChangesSince(layerVersion, f.arenaVersion, changedCells);
+            if (n < 0) {
+                arenaLayer.setArena(f.arena); // too far behind: rebuild visible chunks from the grid
+            } else {
+                int cols = f.arena.getCols();
+                for (int i = 0; i < n; i++)
+                    arenaLayer.refreshCell(changedCells[i] / cols, changedCells[i] % cols);
+            }
+            layerVersion = f.arenaVersion;
+        }
+        arenaLayer.draw(g2d, firstRow, lastRow, firstCol, lastCol);
+    }
+
+    private void drawTrails(Graphics2D g2d, FrameSnapshot f) {
+        int n = f.trailCount;
+        if (n == 0)
+            return;
+        if (bucketOrder.length < n)
+            bucketOrder = new int[Math.max(n, bucketOrder.length * 2)];
+
+        // counting sort of the visible points by (colour, band)
+        int[] start = bucketStart;
+        Arrays.fill(start, 0);
+        for (int i = 0; i < n; i++)
+            if (trailVisible(f, i))
+                start[bucketOf(f, i) + 1]++;
+        for (int k = 1; k < start.length; k++)
+            start[k] += start[k - 1];
+        for (int i = 0; i < n; i++)
+            if (trailVisible(f, i))
+                bucketOrder[start[bucketOf(f, i)]++] = i;
+        // start[k] is now the end of bucket k, i.e. the start of bucket k + 1
+
+        Color player = f.playerName.equalsIgnoreCase("Tron") ? TRAIL_TRON
+                : f.playerName.equalsIgnoreCase("Kevin") ? Color.WHITE : TRAIL_OTHER;
+        int from = 0;
+        for (int k = 0; k < start.length - 1; k++) {
+            int to = start[k];
+            if (to == from)
+                continue;
+            int color = k / TRAIL_BANDS, band = k % TRAIL_BANDS;
+            float half = bandStroke[band].getLineWidth() / 2;
+            trailPath.reset();
+            for (int j = from; j < to; j++) {
+                int i = bucketOrder[j];
+                // segment behind the point, inset so the round caps end where the old round rect did
+                double length = f.trailVelocity[i] * 4, inset = Math.min(half, length / 2);
+                double dx = Math.cos(f.trailAngle[i]), dy = Math.sin(f.trailAngle[i]);
+                double x = f.trailX[i], y = f.trailY[i];
+                trailPath.moveTo(x - dx * (length - inset), y - dy * (length - inset));
+                trailPath.lineTo(x - dx * inset, y - dy * inset);
+            }
+            g2d.setColor(color == TRAIL_PLAYER ? player : TRAIL_COLORS[color]);
+            g2d.setComposite(bandComposite[band]);
+            g2d.setStroke(bandStroke[band]);
+            g2d.draw(trailPath);
+            from = to;
+        }
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private boolean trailVisible(FrameSnapshot f, int i) {
+        return f.trailLife[i] > 0 && isVisible((int) f.trailY[i] / tileSize, (int) f.trailX[i] / tileSize);
+    }
+
+    private static int bucketOf(FrameSnapshot f, int i) {
+        int band = Math.min(TRAIL_BANDS - 1, (int) (f.trailLife[i] * TRAIL_BANDS));
+        int color = Math.min(TRAIL_COLORS.length - 1, f.trailColor[i]);
+        return color * TRAIL_BANDS + band;
+    }
+
+    private SpriteCache.Sprite getPlayerSprite(String name) {
+        if (name.equalsIgnoreCase("Tron")) {
+            return tronSprite;
+        } else if (name.equalsIgnoreCase("Kevin")) {
+            return kevinSprite;
+        }
+        return tronSprite; // fallback
+    }
+
+    private void drawPlayer(Graphics2D g2d, FrameSnapshot f) {
+        SpriteCache.Sprite sprite = getPlayerSprite(f.playerName);
+        if (sprite == null)
+            return;
+        sprite.draw(g2d, (int) Math.round(playerX), (int) Math.round(playerY), f.playerAngle); // glow baked in
+    }
+
+    private SpriteCache.Sprite getEnemySprite(String enemyName) {
+        return switch (enemyName.toUpperCase()) {
+            case "CLU" -> enemyClu;
+            case "RINZLER" -> enemyRinzler;
+            case "SARK" -> enemySark;
+            case "KOURA" -> enemyKoura;
+            default -> null; // fallback
+        };
+    }
+
+    private void drawEnemies(Graphics2D g2d, FrameSnapshot f) {
+        g2d.setFont(INITIAL_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        for (int i = 0; i < f.enemyCount; i++) {
+            if (!isVisible(f.enemyRow[i], f.enemyCol[i]))
+                continue;
+            int x = f.enemyCol[i] * tileSize + tileSize / 2, y = f.enemyRow[i] * tileSize + tileSize / 2;
+
+            SpriteCache.Sprite sprite = getEnemySprite(f.enemyName[i]);
+            if (sprite != null) {
+                sprite.draw(g2d, x, y, f.enemyAngle[i]); // facing its direction, glow baked in
+            } else {
+                g2d.setColor(Color.RED);
+                g2d.fillOval(x - tileSize / 2, y - tileSize / 2, tileSize, tileSize);
+            }
+
+            // Name initial
+            g2d.setColor(Color.BLACK);
+            String initial = f.enemyName[i].substring(0, 1);
+            g2d.drawString(initial, x - fm.stringWidth(initial) / 2, y + fm.getAscent() / 2 - 2);
+        }
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private void drawDiscs(Graphics2D g2d, FrameSnapshot f) {
+        g2d.setStroke(DISC_STROKE);
+        for (int i = 0; i < f.discCount; i++) {
+            double x = f.discX[i], y = f.discY[i];
+            if (!isVisible((int) y / tileSize, (int) x / tileSize))
+                continue;
+            if (f.discGlow[i] > 0)
+                drawDiscCollisionGlow(g2d, f.discGlowRow[i], f.discGlowCol[i], f.discGlow[i], f.discEnemyOwned[i]);
+            if (f.discActive[i]) {
+                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
+                g2d.setColor(f.discEnemyOwned[i] ? DISC_ENEMY : DISC_PLAYER);
+                g2d.fillOval((int) (x - 6), (int) (y - 6), 12, 12);
+                g2d.setComposite(AlphaComposite.SrcOver);
+            } else {
+                g2d.setComposite(AlphaComposite.SrcOver);
+                g2d.setColor(f.discEnemyOwned[i] ? DISC_ENEMY_IDLE : DISC_PLAYER_IDLE);
+                g2d.fillOval((int) (x - 6), (int) (y - 6), 12, 12);
+            }
+            g2d.setColor(Color.WHITE);
+            g2d.drawOval((int) (x - 5), (int) (y - 5), 10, 10);
+        }
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private void drawDiscCollisionGlow(Graphics2D g2d, int row, int col, float glow, boolean enemyOwned) {
+        int x = col * tileSize + tileSize / 2, y = row * tileSize + tileSize / 2;
+
+        int max = tileSize * 3, min = tileSize;
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glow * 0.3f));
+        g2d.setColor(enemyOwned ? DISC_ENEMY : DISC_PLAYER);
+        int outer = (int) (min + (max - min) * glow);
+        g2d.fillOval(x - outer / 2, y - outer / 2, outer, outer);
+
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glow * 0.5f));
+        int mid = (int) (min + (max * 0.6f - min) * glow);
+        g2d.fillOval(x - mid / 2, y - mid / 2, mid, mid);
+
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, glow * 0.8f));
+        int core = (int) (tileSize * 0.5 + (tileSize * 1.5 - tileSize * 0.5) * glow);
+        g2d.fillOval(x - core / 2, y - core / 2, core, core);
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private void drawPlayerCollisionGlow(Graphics2D g2d, int row, int col, float t) {
+        int cx = col * tileSize + tileSize / 2;
+        int cy = row * tileSize + tileSize / 2;
+        float alpha = Math.min(0.9f, 0.2f + t * 0.8f);
+
+        Color glowColor = new Color(255, 90, 90, (int) (alpha * 200));
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha * 0.6f));
+        g2d.setColor(glowColor);
+
+        int maxSize = tileSize * 5;
+        int size = (int) (tileSize + (maxSize - tileSize) * (1.0f - t)); // shrink while fading
+        g2d.fillOval(cx - size / 2, cy - size / 2, size, size);
+
+        // inner bright core
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g2d.setColor(new Color(255, 140, 140, (int) (alpha * 255)));
+        int core = (int) (tileSize * (1.0 + 0.6 * (1.0 - t)));
+        g2d.fillOval(cx - core / 2, cy - core / 2, core, core);
+
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private void drawStateOverlay(Graphics2D g2d, FrameSnapshot f, int width, int height) {
+        if (f.paused) {
+            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setColor(new Color(0, 200, 255));
+            g2d.setFont(OVERLAY_FONT);
+            String text = "PAUSED";
+            FontMetrics fm = g2d.getFontMetrics();
+            g2d.drawString(text, (width - fm.stringWidth(text)) / 2, height / 2);
+        }
+    }
+}